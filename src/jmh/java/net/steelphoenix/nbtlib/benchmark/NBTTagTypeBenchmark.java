@@ -0,0 +1,121 @@
+package net.steelphoenix.nbtlib.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.steelphoenix.nbtlib.NBTTagType;
+import net.steelphoenix.nbtlib.NBTUtil;
+import net.steelphoenix.nbtlib.tag.NBTTagByte;
+import net.steelphoenix.nbtlib.tag.NBTTagCompound;
+import net.steelphoenix.nbtlib.tag.NBTTagInt;
+import net.steelphoenix.nbtlib.tag.NBTTagShort;
+import net.steelphoenix.nbtlib.tag.NBTTagString;
+
+/**
+ * Per-entry cost of reading compound tags with many small entries and of the tag type lookup done for every entry.
+ * The scan benchmark is the lookup {@link NBTTagType#fromId(byte)} did before it used a table.
+ *
+ * @author SteelPhoenix
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NBTTagTypeBenchmark {
+
+	private static final int ENTRIES = 1024;
+	private byte[] bytes;
+	private byte[] ids;
+
+	@Setup
+	public void setup() throws IOException {
+		Random random = new Random(0L);
+		NBTTagCompound tag = new NBTTagCompound();
+		ids = new byte[ENTRIES];
+		for (int i = 0; i < ENTRIES; i++) {
+			String key = "k" + i;
+			switch (i % 4) {
+				case 0:
+					tag.put(key, new NBTTagByte((byte) random.nextInt()));
+					break;
+				case 1:
+					tag.put(key, new NBTTagShort((short) random.nextInt()));
+					break;
+				case 2:
+					tag.put(key, new NBTTagInt(random.nextInt()));
+					break;
+				default:
+					tag.put(key, new NBTTagString("v" + random.nextInt(100)));
+					break;
+			}
+			ids[i] = tag.get(key).getTypeId();
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) NBTUtil.serializedSize("", tag));
+		NBTUtil.write(buffer, tag);
+		bytes = buffer.array();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTRIES)
+	public NBTTagCompound readBuffer() throws IOException {
+		return NBTUtil.read(ByteBuffer.wrap(bytes));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTRIES)
+	public NBTTagCompound readStream() throws IOException {
+		return NBTUtil.read((DataInput) new DataInputStream(new ByteArrayInputStream(bytes)));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTRIES)
+	public void fromIdTable(Blackhole blackhole) {
+		for (byte id : ids) {
+			blackhole.consume(NBTTagType.fromId(id));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTRIES)
+	public void fromIdScan(Blackhole blackhole) {
+		for (byte id : ids) {
+			blackhole.consume(scan(id));
+		}
+	}
+
+	/**
+	 * Get a type from id by scanning all types.
+	 *
+	 * @param id Target id.
+	 * @return the type or null if no type with the given id exists.
+	 */
+	private static NBTTagType scan(byte id) {
+		for (NBTTagType type : NBTTagType.values()) {
+			if (type.getId() == id) {
+				return type;
+			}
+		}
+		return null;
+	}
+}
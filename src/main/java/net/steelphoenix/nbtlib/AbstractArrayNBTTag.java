@@ -0,0 +1,320 @@
+package net.steelphoenix.nbtlib;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A base primitive array tag implementation.
+ * Elements are stored in a primitive array and are only converted to tags when accessed through the collection view.
+ * Note that element tags obtained from the collection view are immutable, use the collection methods to change elements.
+ *
+ * @param <E> Element type.
+ * @param <A> Array type.
+ * @author SteelPhoenix
+ */
+public abstract class AbstractArrayNBTTag<E extends INumericNBTTag<?>, A> extends AbstractCollectionNBTTag<E> {
+
+	// Note that these fields cannot have initializers as the super constructor already sets them
+	private A array;
+	private List<E> view;
+	// Tag this is a read-only view of or null
+	private AbstractArrayNBTTag<E, A> viewed;
+
+	protected AbstractArrayNBTTag(A array) {
+		super(Collections.emptyList());
+		setArray0(array);
+	}
+
+	/**
+	 * Create a read-only view of a tag.
+	 * Changing anything throws an {@link UnsupportedOperationException}.
+	 * Note that subclasses need to override methods that change the backing array in place.
+	 *
+	 * @param tag Target tag.
+	 */
+	protected AbstractArrayNBTTag(AbstractArrayNBTTag<E, A> tag) {
+		super(tag);
+		viewed = tag;
+	}
+
+	@Override
+	public int size() {
+		return length(getArray0());
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return length(getArray0()) == 0;
+	}
+
+	@Override
+	public List<E> getValue() {
+		A array = getArray0();
+		int length = length(array);
+		List<E> list = new ArrayList<>(length);
+		for (int i = 0; i < length; i++) {
+			list.add(getElement(array, i));
+		}
+		return list;
+	}
+
+	@Override
+	public boolean isValid() {
+		// Primitive arrays cannot contain invalid elements
+		return true;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (object != null && object.getClass() == getClass()) {
+			return Objects.deepEquals(getArray0(), ((AbstractArrayNBTTag<?, ?>) object).getArray0());
+		}
+		return super.equals(object);
+	}
+
+	/**
+	 * Get the collection view of the array.
+	 * Note that this creates the view on first use.
+	 *
+	 * @return the collection view.
+	 */
+	@Override
+	protected List<E> getValue0() {
+		if (view == null) {
+			view = new ArrayView();
+		}
+		return view;
+	}
+
+	@Override
+	protected void setValue0(List<E> value) {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		A array = newArray(value.size());
+		int i = 0;
+		for (E element : value) {
+			if (element == null) {
+				throw new NullPointerException("Element cannot be null");
+			}
+			setElement(array, i++, element);
+		}
+		setArray0(array);
+	}
+
+	/**
+	 * Get the backing array.
+	 * Note that this will return the field value directly.
+	 *
+	 * @return the backing array.
+	 */
+	protected A getArray0() {
+		return viewed == null ? array : viewed.getArray0();
+	}
+
+	/**
+	 * Set the backing array.
+	 * Note that this will set the field value directly and clear the cached sizes of the containers holding this tag.
+	 *
+	 * @param array Target array.
+	 */
+	protected void setArray0(A array) {
+		// Preconditions
+		if (array == null) {
+			throw new NullPointerException("Array cannot be null");
+		}
+		if (viewed != null) {
+			throw new UnsupportedOperationException("Cannot change a read-only tag");
+		}
+
+		this.array = array;
+		sizeChanged();
+	}
+
+	@Override
+	boolean isSizeTracked() {
+		// Length changes are reported directly, see setArray0
+		return viewed == null;
+	}
+
+	/**
+	 * Write the elements of an int array to a data output.
+	 * Note that this does not write the array length.
+	 *
+	 * @param output Target output.
+	 * @param array Target array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected static void writeArray(DataOutput output, int[] array) throws IOException {
+		NBTIOUtil.writeIntArray(output, array);
+	}
+
+	/**
+	 * Write the elements of a long array to a data output.
+	 * Note that this does not write the array length.
+	 *
+	 * @param output Target output.
+	 * @param array Target array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected static void writeArray(DataOutput output, long[] array) throws IOException {
+		NBTIOUtil.writeLongArray(output, array);
+	}
+
+	/**
+	 * Get the length of an array.
+	 *
+	 * @param array Target array.
+	 * @return the length.
+	 */
+	protected abstract int length(A array);
+
+	/**
+	 * Create a new array.
+	 *
+	 * @param length Target length.
+	 * @return the created array.
+	 */
+	protected abstract A newArray(int length);
+
+	/**
+	 * Create an element tag from an array element.
+	 *
+	 * @param array Target array.
+	 * @param index Target index.
+	 * @return the created tag.
+	 */
+	protected abstract E getElement(A array, int index);
+
+	/**
+	 * Get an immutable element tag from an array element.
+	 *
+	 * @param array Target array.
+	 * @param index Target index.
+	 * @return the immutable tag.
+	 */
+	protected abstract E getImmutableElement(A array, int index);
+
+	/**
+	 * Set an array element from an element tag.
+	 *
+	 * @param array Target array.
+	 * @param index Target index.
+	 * @param element Target tag.
+	 */
+	protected abstract void setElement(A array, int index, E element);
+
+	/**
+	 * A collection view of the backing array.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private class ArrayView extends AbstractList<E> implements RandomAccess {
+
+		@Override
+		public int size() {
+			return length(getArray0());
+		}
+
+		@Override
+		public E get(int index) {
+			A array = getArray0();
+			checkIndex(index, length(array));
+			return getImmutableElement(array, index);
+		}
+
+		@Override
+		public E set(int index, E element) {
+			// Preconditions
+			A array = getArray0();
+			checkIndex(index, length(array));
+			if (element == null) {
+				throw new NullPointerException("Element cannot be null");
+			}
+			if (viewed != null) {
+				throw new UnsupportedOperationException("Cannot change a read-only tag");
+			}
+
+			E previous = getElement(array, index);
+			setElement(array, index, element);
+			return previous;
+		}
+
+		@Override
+		public void add(int index, E element) {
+			addAll(index, Collections.singletonList(element));
+		}
+
+		@Override
+		public boolean addAll(int index, Collection<? extends E> collection) {
+			// Preconditions
+			A array = getArray0();
+			int length = length(array);
+			checkIndex(index, length + 1);
+			if (collection == null) {
+				throw new NullPointerException("Collection cannot be null");
+			}
+
+			int count = collection.size();
+			if (count == 0) {
+				return false;
+			}
+
+			A next = newArray(length + count);
+			int i = index;
+			for (E element : collection) {
+				if (element == null) {
+					throw new NullPointerException("Element cannot be null");
+				}
+				setElement(next, i++, element);
+			}
+			System.arraycopy(array, 0, next, 0, index);
+			System.arraycopy(array, index, next, index + count, length - index);
+			setArray0(next);
+			modCount++;
+			return true;
+		}
+
+		@Override
+		public E remove(int index) {
+			A array = getArray0();
+			int length = length(array);
+			checkIndex(index, length);
+
+			E previous = getElement(array, index);
+			A next = newArray(length - 1);
+			System.arraycopy(array, 0, next, 0, index);
+			System.arraycopy(array, index + 1, next, index, length - index - 1);
+			setArray0(next);
+			modCount++;
+			return previous;
+		}
+
+		@Override
+		public void clear() {
+			setArray0(newArray(0));
+			modCount++;
+		}
+
+		/**
+		 * Check if an index is in range.
+		 *
+		 * @param index Target index.
+		 * @param length Exclusive upper bound.
+		 */
+		private void checkIndex(int index, int length) {
+			if (index < 0 || index >= length) {
+				throw new IndexOutOfBoundsException("Invalid index for array of size " + size() + ": " + index);
+			}
+		}
+	}
+}
@@ -1,13 +1,16 @@
 package net.steelphoenix.nbtlib;
 
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.RandomAccess;
 import java.util.Spliterator;
-import java.util.StringJoiner;
-import java.util.function.BiFunction;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
@@ -21,8 +24,34 @@ import java.util.stream.Stream;
  */
 public abstract class AbstractCollectionNBTTag<E extends INBTTag<?>> extends AbstractNBTTag<List<E>> implements ICollectionNBTTag<E> {
 
-	protected AbstractCollectionNBTTag(NBTTagType type, List<E> value) {
-		super(type, value);
+	private List<E> value;
+	private final SizeCache cache = new SizeCache();
+	// If elements may have been handed out, see expose
+	private boolean exposed = false;
+	// Tags sharing the value, see shareValue
+	private AtomicInteger owners;
+	private List<E> listView;
+	// Tag this is a read-only view of or null
+	private final AbstractCollectionNBTTag<E> viewed;
+
+	protected AbstractCollectionNBTTag(List<E> value) {
+		viewed = null;
+		setValue0(value);
+	}
+
+	/**
+	 * Create a read-only view of a tag.
+	 * Elements are handed out as read-only views as well, changing anything throws an {@link UnsupportedOperationException}.
+	 *
+	 * @param tag Target tag.
+	 */
+	protected AbstractCollectionNBTTag(AbstractCollectionNBTTag<E> tag) {
+		// Preconditions
+		if (tag == null) {
+			throw new NullPointerException("Tag cannot be null");
+		}
+
+		viewed = tag;
 	}
 
 	@Override
@@ -42,57 +71,57 @@ public abstract class AbstractCollectionNBTTag<E extends INBTTag<?>> extends Abs
 
 	@Override
 	public E get(int index) {
-		return getValue0().get(index);
+		return expose().get(index);
 	}
 
 	@Override
 	public E set(int index, E element) {
-		return getValue0().set(index, element);
+		return change().set(index, element);
 	}
 
 	@Override
 	public boolean add(E element) {
-		return getValue0().add(element);
+		return change().add(element);
 	}
 
 	@Override
 	public void add(int index, E element) {
-		getValue0().add(index, element);
+		change().add(index, element);
 	}
 
 	@Override
 	public boolean addAll(Collection<? extends E> collection) {
-		return getValue0().addAll(collection);
+		return change().addAll(collection);
 	}
 
 	@Override
 	public boolean addAll(int index, Collection<? extends E> collection) {
-		return getValue0().addAll(index, collection);
+		return change().addAll(index, collection);
 	}
 
 	@Override
 	public boolean remove(Object object) {
-		return getValue0().remove(object);
+		return change().remove(object);
 	}
 
 	@Override
 	public E remove(int index) {
-		return getValue0().remove(index);
+		return change().remove(index);
 	}
 
 	@Override
 	public boolean removeAll(Collection<?> collection) {
-		return getValue0().removeAll(collection);
+		return change().removeAll(collection);
 	}
 
 	@Override
 	public boolean retainAll(Collection<?> collection) {
-		return getValue0().retainAll(collection);
+		return change().retainAll(collection);
 	}
 
 	@Override
 	public void clear() {
-		getValue0().clear();
+		change().clear();
 	}
 
 	@Override
@@ -117,72 +146,80 @@ public abstract class AbstractCollectionNBTTag<E extends INBTTag<?>> extends Abs
 
 	@Override
 	public Iterator<E> iterator() {
-		return getValue0().iterator();
+		return new TrackedListIterator(expose().listIterator());
 	}
 
 	@Override
 	public ListIterator<E> listIterator() {
-		return getValue0().listIterator();
+		return new TrackedListIterator(expose().listIterator());
 	}
 
 	@Override
 	public ListIterator<E> listIterator(int index) {
-		return getValue0().listIterator(index);
+		return new TrackedListIterator(expose().listIterator(index));
 	}
 
 	@Override
 	public Spliterator<E> spliterator() {
-		return getValue0().spliterator();
+		return expose().spliterator();
 	}
 
 	@Override
 	public Stream<E> stream() {
-		return getValue0().stream();
+		return expose().stream();
 	}
 
 	@Override
 	public Stream<E> parallelStream() {
-		return getValue0().parallelStream();
+		return expose().parallelStream();
 	}
 
 	@Override
 	public void forEach(Consumer<? super E> action) {
-		getValue0().forEach(action);
+		expose().forEach(action);
 	}
 
 	@Override
 	public void replaceAll(UnaryOperator<E> operator) {
-		getValue0().replaceAll(operator);
+		change().replaceAll(operator);
 	}
 
 	@Override
 	public boolean removeIf(Predicate<? super E> filter) {
-		return getValue0().removeIf(filter);
+		return change().removeIf(filter);
 	}
 
 	@Override
 	public void sort(Comparator<? super E> comparator) {
-		getValue0().sort(comparator);
+		change().sort(comparator);
 	}
 
 	@Override
 	public List<E> subList(int fromIndex, int toIndex) {
-		return getValue0().subList(fromIndex, toIndex);
+		return new TrackedList(expose().subList(fromIndex, toIndex));
 	}
 
 	@Override
 	public Object[] toArray() {
-		return getValue0().toArray();
+		return expose().toArray();
 	}
 
 	@Override
 	public <T> T[] toArray(T[] array) {
-		return getValue0().toArray(array);
+		return expose().toArray(array);
+	}
+
+	@Override
+	public List<E> asListView() {
+		if (listView == null) {
+			listView = new ListView();
+		}
+		return listView;
 	}
 
 	@Override
 	public boolean isValid() {
-		for (E tag : this) {
+		for (E tag : getValue0()) {
 			if (tag == null || tag.getType() != getElementType() || !tag.isValid()) {
 				return false;
 			}
@@ -193,7 +230,7 @@ public abstract class AbstractCollectionNBTTag<E extends INBTTag<?>> extends Abs
 	@Override
 	public int hashCode() {
 		int result = 1;
-		for (E tag : this) {
+		for (E tag : getValue0()) {
 			result = 31 * result + (tag == null ? 0 : tag.hashCode());
 		}
 		return result;
@@ -206,20 +243,21 @@ public abstract class AbstractCollectionNBTTag<E extends INBTTag<?>> extends Abs
 		}
 		ICollectionNBTTag<?> other = (ICollectionNBTTag<?>) object;
 
-		if (getElementType() != other.getElementType()) {
+		if (getElementType() != other.getElementType() || size() != other.size()) {
 			return false;
 		}
 
-		Iterator<E> iterator0 = iterator();
-		Iterator<? extends INBTTag<?>> iterator1 = other.iterator();
+		// Do not expose the other value as that would keep it from sharing its value
+		Iterator<E> iterator0 = getValue0().iterator();
+		Iterator<? extends INBTTag<?>> iterator1 = other instanceof AbstractCollectionNBTTag ? ((AbstractCollectionNBTTag<?>) other).getValue0().iterator() : other.iterator();
 		while (iterator0.hasNext() && iterator1.hasNext()) {
 			E element0 = iterator0.next();
 			INBTTag<?> element1 = iterator1.next();
 			if (element0 == null ? element1 != null : !element0.equals(element1)) {
 				return false;
 			}
-        }
-        return true;
+		}
+		return true;
 	}
 
 	@Override
@@ -229,7 +267,7 @@ public abstract class AbstractCollectionNBTTag<E extends INBTTag<?>> extends Abs
 				.append("NBTTag[type=")
 				.append(getType().getName())
 				.append(", value=List[");
-		Iterator<E> iterator = iterator();
+		Iterator<E> iterator = getValue0().iterator();
 		boolean first = true;
 		while (iterator.hasNext()) {
 			if (!first) {
@@ -247,7 +285,17 @@ public abstract class AbstractCollectionNBTTag<E extends INBTTag<?>> extends Abs
 		return builder.toString();
 	}
 
-	protected String asSNBT(boolean pretty, String prefix, String suffix, BiFunction<? super E, ? super Boolean, ? extends String> stringFunction) {
+	/**
+	 * Write a stringified NBT representation of the elements.
+	 *
+	 * @param output Target output.
+	 * @param options Write options.
+	 * @param depth Nesting depth.
+	 * @param prefix Text before the elements.
+	 * @param suffix Text after the elements.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected void writeSNBT(Appendable output, SNBTOptions options, int depth, String prefix, String suffix) throws IOException {
 		// Preconditions
 		if (prefix == null) {
 			throw new NullPointerException("Prefix cannot be null");
@@ -255,28 +303,363 @@ public abstract class AbstractCollectionNBTTag<E extends INBTTag<?>> extends Abs
 		if (suffix == null) {
 			throw new NullPointerException("Suffix cannot be null");
 		}
-		if (stringFunction == null) {
-			throw new NullPointerException("String function cannot be null");
-		}
-		if (!isValid()) {
-			throw new MalformedNBTException("Tag is not valid");
-		}
+
+		output.append(prefix);
 
 		// Empty
 		if (isEmpty()) {
-			return prefix + suffix;
+			output.append(suffix);
+			return;
 		}
 
-		String newLine = pretty ? System.lineSeparator() : "";
+		boolean first = true;
+		for (E tag : getValue0()) {
+			// Elements check themselves while being stringified so every level is only checked once
+			if (tag == null || tag.getType() != getElementType()) {
+				throw new MalformedNBTException("Tag is not valid");
+			}
 
-		StringJoiner joiner = new StringJoiner("," + newLine, prefix + newLine, newLine + suffix);
-		for (E tag : this) {
-			String snbt = stringFunction.apply(tag, pretty);
-			if (pretty) {
-				snbt = '\t' + snbt.replaceAll("\\R", System.lineSeparator() + '\t');
+			if (!first) {
+				output.append(',');
 			}
-			joiner.add(snbt);
+			first = false;
+			newLine(output, options, depth + 1);
+			writeElementSNBT(tag, output, options, depth + 1);
+		}
+		newLine(output, options, depth);
+		output.append(suffix);
+	}
+
+	/**
+	 * Write a stringified NBT representation of an element.
+	 *
+	 * @param tag Target element.
+	 * @param output Target output.
+	 * @param options Write options.
+	 * @param depth Nesting depth of the element.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected void writeElementSNBT(E tag, Appendable output, SNBTOptions options, int depth) throws IOException {
+		writeChildSNBT(tag, output, options, depth);
+	}
+
+	/**
+	 * Get the cached serialized size.
+	 *
+	 * @return the cached size or -1 if unknown.
+	 */
+	protected long getCachedSize() {
+		return viewed == null ? cache.getSize() : viewed.getCachedSize();
+	}
+
+	/**
+	 * Set the cached serialized size.
+	 * Elements report changes to their serialized size to this tag from now on, which clears the cached size again.
+	 * Note that this is ignored if an element cannot report its changes.
+	 *
+	 * @param size Target size.
+	 */
+	protected void setCachedSize(long size) {
+		if (viewed != null) {
+			viewed.setCachedSize(size);
+			return;
+		}
+		cache.setSize(size, getValue0());
+	}
+
+	@Override
+	protected List<E> getValue0() {
+		return viewed == null ? value : viewed.getValue0();
+	}
+
+	@Override
+	protected void setValue0(List<E> value) {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+		if (viewed != null) {
+			throw new UnsupportedOperationException("Cannot change a read-only tag");
+		}
+
+		this.value = value;
+		cache.clear();
+		exposed = false;
+
+		// The counter can be kept if no other tag shares it
+		if (owners == null || owners.get() != 1) {
+			release(new AtomicInteger(1));
+		}
+	}
+
+	/**
+	 * Share the tag value with another tag of the same type.
+	 * Either tag copies the value before it is first changed, which in turn only shares the elements.
+	 * That way only the path to a change gets copied.
+	 * Note that this replaces the value of the target tag.
+	 *
+	 * @param tag Target tag.
+	 */
+	protected void shareValue(AbstractCollectionNBTTag<E> tag) {
+		// Preconditions
+		if (tag == null) {
+			throw new NullPointerException("Tag cannot be null");
+		}
+		if (viewed != null) {
+			viewed.shareValue(tag);
+			return;
+		}
+
+		// Elements may be referenced elsewhere, so only elements can be shared
+		if (exposed) {
+			tag.setValue0(copyElements(getValue0()));
+			return;
+		}
+
+		owners.incrementAndGet();
+		tag.setShared(getValue0(), owners, cache);
+	}
+
+	@Override
+	boolean isSizeTracked() {
+		// Views cannot report changes of the tag they view
+		return viewed == null && cache.getSize() >= 0L;
+	}
+
+	@Override
+	SizeCache getParentCache() {
+		return cache.getParent();
+	}
+
+	@Override
+	void setParentCache(SizeCache cache) {
+		this.cache.setParent(cache);
+	}
+
+	/**
+	 * Get the tag value for access that hands out its elements.
+	 *
+	 * @return the tag value.
+	 */
+	private List<E> expose() {
+		if (viewed != null) {
+			return asListView();
+		}
+
+		// Copy a shared value first so changes do not affect the other tags
+		if (owners != null && owners.get() > 1) {
+			value = copyElements(value);
+			release(new AtomicInteger(1));
+		}
+
+		// Elements of a shared value may still report to the tag that counted them, so count them again
+		if (!exposed) {
+			cache.clear();
+			exposed = true;
+		}
+		return getValue0();
+	}
+
+	/**
+	 * Get the tag value for access that may change it.
+	 * Note that this clears the cached serialized size.
+	 *
+	 * @return the tag value.
+	 */
+	private List<E> change() {
+		if (viewed != null) {
+			throw new UnsupportedOperationException("Cannot change a read-only tag");
+		}
+
+		List<E> value = expose();
+		cache.clear();
+		return value;
+	}
+
+	/**
+	 * Set a value shared with another tag.
+	 *
+	 * @param value Target value.
+	 * @param owners Tags sharing the value.
+	 * @param cache Size cache of the other tag.
+	 */
+	private void setShared(List<E> value, AtomicInteger owners, SizeCache cache) {
+		this.value = value;
+		this.cache.clear();
+		this.cache.copySize(cache);
+		exposed = false;
+		release(owners);
+	}
+
+	/**
+	 * Stop sharing the previous value.
+	 *
+	 * @param owners Tags sharing the new value.
+	 */
+	private void release(AtomicInteger owners) {
+		// Note that this is null while constructing
+		AtomicInteger previous = this.owners;
+		this.owners = owners;
+		if (previous != null) {
+			previous.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Copy elements into a new list.
+	 * Note that the elements themselves are copied as well as they could be changed through the new list.
+	 *
+	 * @param list Target list.
+	 * @return the copy.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E extends INBTTag<?>> List<E> copyElements(List<E> list) {
+		List<E> copy = new ArrayList<>(list.size());
+		for (E element : list) {
+			copy.add(element == null ? null : (E) element.copy());
+		}
+		return copy;
+	}
+
+	/**
+	 * The read-only view.
+	 * Note that this reads the current value so it stays valid when a shared value is copied.
+	 * Elements are handed out as read-only views, so the value is never exposed.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private class ListView extends AbstractList<E> implements RandomAccess {
+
+		@Override
+		public int size() {
+			return getValue0().size();
+		}
+
+		@Override
+		public E get(int index) {
+			return readOnly(getValue0().get(index));
+		}
+	}
+
+	/**
+	 * A view of part of the value that clears the cached serialized size when it is changed.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private class TrackedList extends AbstractList<E> implements RandomAccess {
+
+		private final List<E> list;
+
+		private TrackedList(List<E> list) {
+			this.list = list;
+		}
+
+		@Override
+		public int size() {
+			return list.size();
+		}
+
+		@Override
+		public E get(int index) {
+			return list.get(index);
+		}
+
+		@Override
+		public E set(int index, E element) {
+			E previous = list.set(index, element);
+			cache.clear();
+			return previous;
+		}
+
+		@Override
+		public void add(int index, E element) {
+			list.add(index, element);
+			cache.clear();
+		}
+
+		@Override
+		public E remove(int index) {
+			E previous = list.remove(index);
+			cache.clear();
+			return previous;
+		}
+
+		@Override
+		public void clear() {
+			list.clear();
+			cache.clear();
+		}
+
+		@Override
+		public ListIterator<E> listIterator(int index) {
+			return new TrackedListIterator(list.listIterator(index));
+		}
+
+		@Override
+		public List<E> subList(int fromIndex, int toIndex) {
+			return new TrackedList(list.subList(fromIndex, toIndex));
+		}
+	}
+
+	/**
+	 * An iterator over the value that clears the cached serialized size when it changes an element.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private class TrackedListIterator implements ListIterator<E> {
+
+		private final ListIterator<E> iterator;
+
+		private TrackedListIterator(ListIterator<E> iterator) {
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public E next() {
+			return iterator.next();
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return iterator.hasPrevious();
+		}
+
+		@Override
+		public E previous() {
+			return iterator.previous();
+		}
+
+		@Override
+		public int nextIndex() {
+			return iterator.nextIndex();
+		}
+
+		@Override
+		public int previousIndex() {
+			return iterator.previousIndex();
+		}
+
+		@Override
+		public void remove() {
+			iterator.remove();
+			cache.clear();
+		}
+
+		@Override
+		public void set(E element) {
+			iterator.set(element);
+			cache.clear();
+		}
+
+		@Override
+		public void add(E element) {
+			iterator.add(element);
+			cache.clear();
 		}
-		return joiner.toString();
 	}
 }
\ No newline at end of file
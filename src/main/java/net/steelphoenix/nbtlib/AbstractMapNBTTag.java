@@ -1,16 +1,19 @@
 package net.steelphoenix.nbtlib;
 
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.regex.Pattern;
-
-import net.steelphoenix.nbtlib.tag.NBTTagString;
 
 /**
  * A base map NBT tag implementation.
@@ -20,10 +23,34 @@ import net.steelphoenix.nbtlib.tag.NBTTagString;
  */
 public abstract class AbstractMapNBTTag<V extends INBTTag<?>> extends AbstractNBTTag<Map<String, V>> implements IMapNBTTag<V> {
 
-	private static final Pattern SIMPLE = Pattern.compile("[A-Za-z0-9._+-]+");
+	private Map<String, V> value;
+	private final SizeCache cache = new SizeCache();
+	// If entries may have been handed out, see expose
+	private boolean exposed = false;
+	// Tags sharing the value, see shareValue
+	private AtomicInteger owners;
+	private Map<String, V> mapView;
+	// Tag this is a read-only view of or null
+	private final AbstractMapNBTTag<V> viewed;
+
+	protected AbstractMapNBTTag(Map<String, V> value) {
+		viewed = null;
+		setValue0(value);
+	}
+
+	/**
+	 * Create a read-only view of a tag.
+	 * Entries are handed out as read-only views as well, changing anything throws an {@link UnsupportedOperationException}.
+	 *
+	 * @param tag Target tag.
+	 */
+	protected AbstractMapNBTTag(AbstractMapNBTTag<V> tag) {
+		// Preconditions
+		if (tag == null) {
+			throw new NullPointerException("Tag cannot be null");
+		}
 
-	protected AbstractMapNBTTag(NBTTagType type, Map<String, V> value) {
-		super(type, value);
+		viewed = tag;
 	}
 
 	@Override
@@ -38,52 +65,52 @@ public abstract class AbstractMapNBTTag<V extends INBTTag<?>> extends AbstractNB
 
 	@Override
 	public V get(Object key) {
-		return getValue0().get(key);
+		return expose().get(key);
 	}
 
 	@Override
 	public V getOrDefault(Object key, V def) {
-		return getValue0().getOrDefault(key, def);
+		return expose().getOrDefault(key, def);
 	}
 
 	@Override
 	public V put(String key, V value) {
-		return getValue0().put(key, value);
+		return change().put(key, value);
 	}
 
 	@Override
 	public V putIfAbsent(String key, V value) {
-		return getValue0().putIfAbsent(key, value);
+		return change().putIfAbsent(key, value);
 	}
 
 	@Override
 	public void putAll(Map<? extends String, ? extends V> map) {
-		getValue0().putAll(map);
+		change().putAll(map);
 	}
 
 	@Override
 	public V replace(String key, V value) {
-		return getValue0().replace(key, value);
+		return change().replace(key, value);
 	}
 
 	@Override
 	public boolean replace(String key, V oldValue, V newValue) {
-		return getValue0().replace(key, oldValue, newValue);
+		return change().replace(key, oldValue, newValue);
 	}
 
 	@Override
 	public V remove(Object key) {
-		return getValue0().remove(key);
+		return change().remove(key);
 	}
 
 	@Override
 	public boolean remove(Object key, Object value) {
-		return getValue0().remove(key, value);
+		return change().remove(key, value);
 	}
 
 	@Override
 	public void clear() {
-		getValue0().clear();
+		change().clear();
 	}
 
 	@Override
@@ -98,52 +125,60 @@ public abstract class AbstractMapNBTTag<V extends INBTTag<?>> extends AbstractNB
 
 	@Override
 	public Set<String> keySet() {
-		return getValue0().keySet();
+		return new TrackedSet<>(expose().keySet());
 	}
 
 	@Override
 	public Collection<V> values() {
-		return getValue0().values();
+		return new TrackedCollection<>(expose().values());
 	}
 
 	@Override
 	public Set<Entry<String, V>> entrySet() {
-		return getValue0().entrySet();
+		return new TrackedEntrySet(expose().entrySet());
 	}
 
 	@Override
 	public void forEach(BiConsumer<? super String, ? super V> action) {
-		getValue0().forEach(action);
+		expose().forEach(action);
 	}
 
 	@Override
 	public void replaceAll(BiFunction<? super String, ? super V, ? extends V> function) {
-		getValue0().replaceAll(function);
+		change().replaceAll(function);
 	}
 
 	@Override
 	public V merge(String key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
-		return getValue0().merge(key, value, remappingFunction);
+		return change().merge(key, value, remappingFunction);
 	}
 
 	@Override
 	public V compute(String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
-		return getValue0().compute(key, remappingFunction);
+		return change().compute(key, remappingFunction);
 	}
 
 	@Override
 	public V computeIfAbsent(String key, Function<? super String, ? extends V> mappingFunction) {
-		return getValue0().computeIfAbsent(key, mappingFunction);
+		return change().computeIfAbsent(key, mappingFunction);
 	}
 
 	@Override
 	public V computeIfPresent(String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
-		return getValue0().computeIfPresent(key, remappingFunction);
+		return change().computeIfPresent(key, remappingFunction);
+	}
+
+	@Override
+	public Map<String, V> asMapView() {
+		if (mapView == null) {
+			mapView = new MapView();
+		}
+		return mapView;
 	}
 
 	@Override
 	public boolean isValid() {
-		for (Entry<String, V> entry : entrySet()) {
+		for (Entry<String, V> entry : getValue0().entrySet()) {
 			if (entry.getKey() == null || entry.getValue() == null || !entry.getValue().isValid()) {
 				return false;
 			}
@@ -154,7 +189,7 @@ public abstract class AbstractMapNBTTag<V extends INBTTag<?>> extends AbstractNB
 	@Override
 	public int hashCode() {
 		int result = 0;
-		for (Entry<String, V> entry : entrySet()) {
+		for (Entry<String, V> entry : getValue0().entrySet()) {
 			result += ((entry.getKey() == null ? 0 : entry.getKey().hashCode()) ^ (entry.getValue() == null ? 0 : entry.getValue().hashCode()));
 		}
 		return result;
@@ -171,14 +206,16 @@ public abstract class AbstractMapNBTTag<V extends INBTTag<?>> extends AbstractNB
 			return false;
 		}
 
-		for (Entry<String, V> entry : entrySet()) {
+		// Do not expose the other value as that would keep it from sharing its value
+		Map<String, ? extends INBTTag<?>> map = other instanceof AbstractMapNBTTag ? ((AbstractMapNBTTag<?>) other).getValue0() : other;
+		for (Entry<String, V> entry : getValue0().entrySet()) {
 			V value0 = entry.getValue();
 
-			if (!other.containsKey(entry.getKey())) {
+			if (!map.containsKey(entry.getKey())) {
 				return false;
 			}
 
-			INBTTag<?> value1 = other.get(entry.getKey());
+			INBTTag<?> value1 = map.get(entry.getKey());
 			if (value0 == null ? value1 != null : !value0.equals(value1)) {
 				return false;
 			}
@@ -193,7 +230,7 @@ public abstract class AbstractMapNBTTag<V extends INBTTag<?>> extends AbstractNB
 				.append("NBTTag[type=")
 				.append(getType().getName())
 				.append(", value=Map[");
-		Iterator<Entry<String, V>> iterator = entrySet().iterator();
+		Iterator<Entry<String, V>> iterator = getValue0().entrySet().iterator();
 		boolean first = true;
 		while (iterator.hasNext()) {
 			if (!first) {
@@ -216,29 +253,488 @@ public abstract class AbstractMapNBTTag<V extends INBTTag<?>> extends AbstractNB
 		return builder.toString();
 	}
 
-	protected String asSNBT(boolean pretty, String prefix, String suffix) {
+	/**
+	 * Write a stringified NBT representation of the entries.
+	 *
+	 * @param output Target output.
+	 * @param options Write options.
+	 * @param depth Nesting depth.
+	 * @param prefix Text before the entries.
+	 * @param suffix Text after the entries.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected void writeSNBT(Appendable output, SNBTOptions options, int depth, String prefix, String suffix) throws IOException {
 		// Preconditions
-		if (!isValid()) {
-			throw new MalformedNBTException("Tag is not valid");
+		if (prefix == null) {
+			throw new NullPointerException("Prefix cannot be null");
+		}
+		if (suffix == null) {
+			throw new NullPointerException("Suffix cannot be null");
 		}
 
+		output.append(prefix);
+
 		// Empty
 		if (isEmpty()) {
-			return prefix + suffix;
+			output.append(suffix);
+			return;
+		}
+
+		boolean first = true;
+		for (Entry<String, V> entry : getValue0().entrySet()) {
+			// Entries check themselves while being stringified so every level is only checked once
+			if (entry.getKey() == null || entry.getValue() == null) {
+				throw new MalformedNBTException("Tag is not valid");
+			}
+
+			if (!first) {
+				output.append(',');
+			}
+			first = false;
+			newLine(output, options, depth + 1);
+
+			SNBTEscaper.writeKey(output, entry.getKey());
+			output.append(':');
+			if (!options.isCompact()) {
+				output.append(' ');
+			}
+			writeChildSNBT(entry.getValue(), output, options, depth + 1);
+		}
+		newLine(output, options, depth);
+		output.append(suffix);
+	}
+
+	/**
+	 * Get the cached serialized size.
+	 *
+	 * @return the cached size or -1 if unknown.
+	 */
+	protected long getCachedSize() {
+		return viewed == null ? cache.getSize() : viewed.getCachedSize();
+	}
+
+	/**
+	 * Set the cached serialized size.
+	 * Entries report changes to their serialized size to this tag from now on, which clears the cached size again.
+	 * Note that this is ignored if an entry cannot report its changes.
+	 *
+	 * @param size Target size.
+	 */
+	protected void setCachedSize(long size) {
+		if (viewed != null) {
+			viewed.setCachedSize(size);
+			return;
+		}
+		cache.setSize(size, getValue0().values());
+	}
+
+	@Override
+	protected Map<String, V> getValue0() {
+		return viewed == null ? value : viewed.getValue0();
+	}
+
+	@Override
+	protected void setValue0(Map<String, V> value) {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+		if (viewed != null) {
+			throw new UnsupportedOperationException("Cannot change a read-only tag");
+		}
+
+		this.value = value;
+		cache.clear();
+		exposed = false;
+
+		// The counter can be kept if no other tag shares it
+		if (owners == null || owners.get() != 1) {
+			release(new AtomicInteger(1));
+		}
+	}
+
+	/**
+	 * Share the tag value with another tag of the same type.
+	 * Either tag copies the value before it is first changed, which in turn only shares the entries.
+	 * That way only the path to a change gets copied.
+	 * Note that this replaces the value of the target tag.
+	 *
+	 * @param tag Target tag.
+	 */
+	protected void shareValue(AbstractMapNBTTag<V> tag) {
+		// Preconditions
+		if (tag == null) {
+			throw new NullPointerException("Tag cannot be null");
+		}
+		if (viewed != null) {
+			viewed.shareValue(tag);
+			return;
+		}
+
+		// Entries may be referenced elsewhere and lazy values are decoded on access, so only entries can be shared
+		if (exposed || getValue0() instanceof LazyCompoundMap) {
+			tag.setValue0(copyEntries(getValue0()));
+			return;
+		}
+
+		owners.incrementAndGet();
+		tag.setShared(getValue0(), owners, cache);
+	}
+
+	@Override
+	boolean isSizeTracked() {
+		// Views cannot report changes of the tag they view
+		return viewed == null && cache.getSize() >= 0L;
+	}
+
+	@Override
+	SizeCache getParentCache() {
+		return cache.getParent();
+	}
+
+	@Override
+	void setParentCache(SizeCache cache) {
+		this.cache.setParent(cache);
+	}
+
+	/**
+	 * Get the tag value for access that hands out its entries.
+	 *
+	 * @return the tag value.
+	 */
+	private Map<String, V> expose() {
+		if (viewed != null) {
+			return asMapView();
+		}
+
+		// Copy a shared value first so changes do not affect the other tags
+		if (owners != null && owners.get() > 1) {
+			value = copyEntries(value);
+			release(new AtomicInteger(1));
+		}
+
+		// Entries of a shared value may still report to the tag that counted them, so count them again
+		if (!exposed) {
+			cache.clear();
+			exposed = true;
+		}
+		return getValue0();
+	}
+
+	/**
+	 * Get the tag value for access that may change it.
+	 * Note that this clears the cached serialized size.
+	 *
+	 * @return the tag value.
+	 */
+	private Map<String, V> change() {
+		if (viewed != null) {
+			throw new UnsupportedOperationException("Cannot change a read-only tag");
+		}
+
+		Map<String, V> value = expose();
+		cache.clear();
+		return value;
+	}
+
+	/**
+	 * Set a value shared with another tag.
+	 *
+	 * @param value Target value.
+	 * @param owners Tags sharing the value.
+	 * @param cache Size cache of the other tag.
+	 */
+	private void setShared(Map<String, V> value, AtomicInteger owners, SizeCache cache) {
+		this.value = value;
+		this.cache.clear();
+		this.cache.copySize(cache);
+		exposed = false;
+		release(owners);
+	}
+
+	/**
+	 * Stop sharing the previous value.
+	 *
+	 * @param owners Tags sharing the new value.
+	 */
+	private void release(AtomicInteger owners) {
+		// Note that this is null while constructing
+		AtomicInteger previous = this.owners;
+		this.owners = owners;
+		if (previous != null) {
+			previous.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Copy entries into a new map.
+	 * Note that the entries themselves are copied as well as they could be changed through the new map.
+	 *
+	 * @param map Target map.
+	 * @return the copy.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <V extends INBTTag<?>> Map<String, V> copyEntries(Map<String, V> map) {
+		Map<String, V> copy = new LinkedHashMap<>(map.size());
+		for (Entry<String, V> entry : map.entrySet()) {
+			V value = entry.getValue();
+			copy.put(entry.getKey(), value == null ? null : (V) value.copy());
+		}
+		return copy;
+	}
+
+	/**
+	 * The read-only view.
+	 * Note that this reads the current value so it stays valid when a shared value is copied.
+	 * Values are handed out as read-only views, so the value is never exposed.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private class MapView extends AbstractMap<String, V> {
+
+		@Override
+		public int size() {
+			return getValue0().size();
 		}
 
+		@Override
+		public boolean isEmpty() {
+			return getValue0().isEmpty();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return getValue0().containsKey(key);
+		}
+
+		@Override
+		public boolean containsValue(Object value) {
+			return getValue0().containsValue(value);
+		}
+
+		@Override
+		public V get(Object key) {
+			return readOnly(getValue0().get(key));
+		}
+
+		@Override
+		public Set<String> keySet() {
+			return Collections.unmodifiableSet(getValue0().keySet());
+		}
+
+		@Override
+		public Set<Entry<String, V>> entrySet() {
+			return new EntrySetView();
+		}
+	}
+
+	/**
+	 * The read-only entry set view.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private class EntrySetView extends AbstractSet<Entry<String, V>> {
+
+		@Override
+		public int size() {
+			return getValue0().size();
+		}
 
-		String newLine = pretty ? System.lineSeparator() : "";
+		@Override
+		public Iterator<Entry<String, V>> iterator() {
+			Iterator<Entry<String, V>> iterator = getValue0().entrySet().iterator();
+			return new Iterator<Entry<String, V>>() {
+
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public Entry<String, V> next() {
+					Entry<String, V> entry = iterator.next();
+					return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), readOnly(entry.getValue()));
+				}
+			};
+		}
+	}
+
+	/**
+	 * A view of the value that clears the cached serialized size when it is changed.
+	 *
+	 * @param <T> Element type.
+	 * @author SteelPhoenix
+	 */
+	private class TrackedCollection<T> extends AbstractCollection<T> {
 
-		StringJoiner joiner = new StringJoiner("," + newLine, prefix + newLine, newLine + suffix);
-		for (Entry<String, V> entry : entrySet()) {
-			// Cheeky NBTTagString so we do not have to rewrite formatting logic
-			String snbt = (SIMPLE.matcher(entry.getKey()).matches() ? entry.getKey() : new NBTTagString(entry.getKey()).asSNBT(pretty)) + ':' + (pretty ? " " : "") + entry.getValue().asSNBT(pretty);
-			if (pretty) {
-				snbt = '\t' + snbt.replaceAll("\\R", System.lineSeparator() + '\t');
+		private final Collection<T> collection;
+
+		private TrackedCollection(Collection<T> collection) {
+			this.collection = collection;
+		}
+
+		@Override
+		public int size() {
+			return collection.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return collection.isEmpty();
+		}
+
+		@Override
+		public boolean contains(Object object) {
+			return collection.contains(object);
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return new TrackedIterator<>(collection.iterator());
+		}
+
+		@Override
+		public boolean remove(Object object) {
+			if (collection.remove(object)) {
+				cache.clear();
+				return true;
 			}
-			joiner.add(snbt);
+			return false;
+		}
+
+		@Override
+		public void clear() {
+			collection.clear();
+			cache.clear();
+		}
+	}
+
+	/**
+	 * A set view of the value that clears the cached serialized size when it is changed.
+	 *
+	 * @param <T> Element type.
+	 * @author SteelPhoenix
+	 */
+	private class TrackedSet<T> extends TrackedCollection<T> implements Set<T> {
+
+		private final Set<T> set;
+
+		private TrackedSet(Set<T> set) {
+			super(set);
+			this.set = set;
+		}
+
+		@Override
+		public int hashCode() {
+			return set.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			return object == this || set.equals(object);
+		}
+	}
+
+	/**
+	 * An entry set view of the value that clears the cached serialized size when it is changed.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private class TrackedEntrySet extends TrackedSet<Entry<String, V>> {
+
+		private final Set<Entry<String, V>> set;
+
+		private TrackedEntrySet(Set<Entry<String, V>> set) {
+			super(set);
+			this.set = set;
+		}
+
+		@Override
+		public Iterator<Entry<String, V>> iterator() {
+			return new TrackedIterator<Entry<String, V>>(set.iterator()) {
+
+				@Override
+				public Entry<String, V> next() {
+					return new TrackedEntry(super.next());
+				}
+			};
+		}
+	}
+
+	/**
+	 * An iterator over the value that clears the cached serialized size when it removes an element.
+	 *
+	 * @param <T> Element type.
+	 * @author SteelPhoenix
+	 */
+	private class TrackedIterator<T> implements Iterator<T> {
+
+		private final Iterator<T> iterator;
+
+		private TrackedIterator(Iterator<T> iterator) {
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public T next() {
+			return iterator.next();
+		}
+
+		@Override
+		public void remove() {
+			iterator.remove();
+			cache.clear();
+		}
+	}
+
+	/**
+	 * An entry of the value that clears the cached serialized size when it is changed.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private class TrackedEntry implements Entry<String, V> {
+
+		private final Entry<String, V> entry;
+
+		private TrackedEntry(Entry<String, V> entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public String getKey() {
+			return entry.getKey();
+		}
+
+		@Override
+		public V getValue() {
+			return entry.getValue();
+		}
+
+		@Override
+		public V setValue(V value) {
+			V previous = entry.setValue(value);
+			cache.clear();
+			return previous;
+		}
+
+		@Override
+		public int hashCode() {
+			return entry.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			return object == this || entry.equals(object);
+		}
+
+		@Override
+		public String toString() {
+			return entry.toString();
 		}
-		return joiner.toString();
 	}
 }
\ No newline at end of file
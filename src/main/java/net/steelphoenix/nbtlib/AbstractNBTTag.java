@@ -1,26 +1,22 @@
 package net.steelphoenix.nbtlib;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * A base NBT tag implementation.
+ * Subclasses store the value themselves and derive their type from their class.
  *
  * @author SteelPhoenix
  */
 public abstract class AbstractNBTTag<T> implements INBTTag<T> {
 
-	private final NBTTagType type;
-	private T value;
-
-	protected AbstractNBTTag(NBTTagType type, T value) {
-		if (type == null) {
-			throw new NullPointerException("Type cannot be null");
-		}
-		this.type = type;
-		setValue0(value);
-	}
+	// Size cache of the container that last counted this tag, see SizeCache
+	private SizeCache parentCache;
 
-	@Override
-	public NBTTagType getType() {
-		return type;
+	protected AbstractNBTTag() {
+		// Nothing
 	}
 
 	@Override
@@ -43,6 +39,35 @@ public abstract class AbstractNBTTag<T> implements INBTTag<T> {
 		return asSNBT(false);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * By default this streams {@link #writeSNBT(Appendable, SNBTOptions, int)} into a string.
+	 */
+	@Override
+	public String asSNBT(boolean pretty) {
+		StringBuilder builder = new StringBuilder();
+		try {
+			writeSNBT(builder, pretty ? SNBTOptions.PRETTY : SNBTOptions.COMPACT, 0);
+		} catch (IOException exception) {
+			// String builders do not throw
+			throw new UncheckedIOException(exception);
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public void writeSNBT(Appendable output, SNBTOptions options) throws IOException {
+		// Preconditions
+		if (output == null) {
+			throw new NullPointerException("Output cannot be null");
+		}
+		if (options == null) {
+			throw new NullPointerException("Options cannot be null");
+		}
+
+		writeSNBT(output, options, 0);
+	}
+
 	@Override
 	public boolean isValid() {
 		return true;
@@ -50,7 +75,7 @@ public abstract class AbstractNBTTag<T> implements INBTTag<T> {
 
 	@Override
 	public int hashCode() {
-		return value.hashCode();
+		return getValue0().hashCode();
 	}
 
 	@Override
@@ -59,36 +84,175 @@ public abstract class AbstractNBTTag<T> implements INBTTag<T> {
 			return false;
 		}
 		INBTTag<?> other = (INBTTag<?>) object;
-		return type == other.getType() && value.equals(other.getValue());
+		return getType() == other.getType() && getValue0().equals(other.getValue());
 	}
 
 	@Override
 	public String toString() {
-		return "NBTTag[type=" + type.getName() + ", value=" + value + "]";
+		return "NBTTag[type=" + getType().getName() + ", value=" + getValue0() + "]";
+	}
+
+	/**
+	 * Write a stringified NBT representation of this tag at a nesting depth.
+	 * By default this writes {@link #asSNBT(boolean)} as tags without children are never indented.
+	 * Note that subclasses need to override either this or {@link #asSNBT(boolean)}.
+	 *
+	 * @param output Target output.
+	 * @param options Write options.
+	 * @param depth Nesting depth.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected void writeSNBT(Appendable output, SNBTOptions options, int depth) throws IOException {
+		output.append(asSNBT(!options.isCompact()));
+	}
+
+	/**
+	 * Write a stringified NBT representation of a child tag.
+	 *
+	 * @param tag Target tag.
+	 * @param output Target output.
+	 * @param options Write options.
+	 * @param depth Nesting depth of the child.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected static void writeChildSNBT(INBTTag<?> tag, Appendable output, SNBTOptions options, int depth) throws IOException {
+		if (tag instanceof AbstractNBTTag) {
+			((AbstractNBTTag<?>) tag).writeSNBT(output, options, depth);
+			return;
+		}
+
+		// Other implementations only have a string representation so line breaks are indented by hand
+		String snbt = tag.asSNBT(!options.isCompact());
+		for (int i = 0; i < snbt.length(); i++) {
+			char c = snbt.charAt(i);
+			if (c == '\r' || c == '\n') {
+				if (c == '\r' && i + 1 < snbt.length() && snbt.charAt(i + 1) == '\n') {
+					i++;
+				}
+				newLine(output, options, depth);
+			}
+			else {
+				output.append(c);
+			}
+		}
+	}
+
+	/**
+	 * Start a new line if output is not compact.
+	 *
+	 * @param output Target output.
+	 * @param options Write options.
+	 * @param depth Nesting depth of the new line.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected static void newLine(Appendable output, SNBTOptions options, int depth) throws IOException {
+		if (options.isCompact()) {
+			return;
+		}
+
+		output.append(options.getLineSeparator());
+		String indent = options.getIndent();
+		for (int i = 0; i < depth; i++) {
+			output.append(indent);
+		}
+	}
+
+	/**
+	 * Write a modified UTF-8 string to a data output.
+	 * The output is identical to {@link DataOutput#writeUTF(String)}.
+	 *
+	 * @param output Target output.
+	 * @param string Target string.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected static void writeUTF(DataOutput output, String string) throws IOException {
+		NBTIOUtil.writeUTF(output, string);
+	}
+
+	/**
+	 * Get the modified UTF-8 encoded length of a string.
+	 * Note that this excludes the length prefix.
+	 *
+	 * @param string Target string.
+	 * @return the encoded length.
+	 */
+	protected static int getUTFLength(String string) {
+		return NBTIOUtil.getUTFLength(string);
+	}
+
+	/**
+	 * Get a read-only view of this tag.
+	 * Note that subclasses with a value that can change need to override this with a view of the same class.
+	 *
+	 * @return the read-only view.
+	 */
+	protected AbstractNBTTag<T> asReadOnly() {
+		return this;
+	}
+
+	/**
+	 * Clear the cached serialized sizes of the containers holding this tag.
+	 * Note that subclasses whose serialized size can change need to call this whenever it does.
+	 */
+	protected void sizeChanged() {
+		SizeCache cache = getParentCache();
+		if (cache != null) {
+			cache.clear();
+		}
 	}
 
 	/**
 	 * Get the tag value.
-	 * Note that this will return the field value directly.
+	 * Note that this will return the stored value directly.
 	 *
 	 * @return the tag value.
 	 */
-	protected T getValue0() {
-		return value;
-	}
+	protected abstract T getValue0();
 
 	/**
 	 * Set the tag value.
-	 * Note that this will set the field value directly.
+	 * Note that this will set the stored value directly.
 	 *
 	 * @param value Target value.
 	 */
-	protected void setValue0(T value) {
-		// Preconditions
-		if (value == null) {
-			throw new NullPointerException("Value cannot be null");
-		}
+	protected abstract void setValue0(T value);
+
+	/**
+	 * Get a read-only view of a tag.
+	 * Note that tags that do not extend this class are returned as is.
+	 *
+	 * @param tag Target tag.
+	 * @return the read-only view or null if the tag is null.
+	 */
+	@SuppressWarnings("unchecked")
+	static <V extends INBTTag<?>> V readOnly(V tag) {
+		return tag instanceof AbstractNBTTag ? (V) ((AbstractNBTTag<?>) tag).asReadOnly() : tag;
+	}
+
+	/**
+	 * Check if changes to the serialized size are reported.
+	 *
+	 * @return if the size is tracked.
+	 */
+	boolean isSizeTracked() {
+		return true;
+	}
+
+	/**
+	 * Get the size cache of the container that last counted this tag.
+	 *
+	 * @return the parent cache or null.
+	 */
+	SizeCache getParentCache() {
+		return parentCache;
+	}
 
-		this.value = value;
+	/**
+	 * Set the size cache of the container that last counted this tag.
+	 *
+	 * @param cache Target cache.
+	 */
+	void setParentCache(SizeCache cache) {
+		parentCache = cache;
 	}
 }
\ No newline at end of file
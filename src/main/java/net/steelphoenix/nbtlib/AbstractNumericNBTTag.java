@@ -2,48 +2,19 @@ package net.steelphoenix.nbtlib;
 
 /**
  * A base numeric NBT tag implementation.
+ * Subclasses store the value as a primitive, so only {@link #getValue()} and {@link #getAsNumber()} box it.
  *
  * @param <T> Number type.
  * @author SteelPhoenix
  */
 public abstract class AbstractNumericNBTTag<T extends Number> extends AbstractNBTTag<T> implements INumericNBTTag<T> {
 
-	protected AbstractNumericNBTTag(NBTTagType type, T value) {
-		super(type, value);
-	}
-
-	@Override
-	public byte getAsByte() {
-		return getAsNumber().byteValue();
-	}
-
-	@Override
-	public short getAsShort() {
-		return getAsNumber().shortValue();
-	}
-
-	@Override
-	public int getAsInt() {
-		return getAsNumber().intValue();
-	}
-
-	@Override
-	public long getAsLong() {
-		return getAsNumber().longValue();
-	}
-
-	@Override
-	public float getAsFloat() {
-		return getAsNumber().floatValue();
-	}
-
-	@Override
-	public double getAsDouble() {
-		return getAsNumber().doubleValue();
+	protected AbstractNumericNBTTag() {
+		// Nothing
 	}
 
 	@Override
 	public Number getAsNumber() {
-		return getValue();
+		return getValue0();
 	}
 }
@@ -0,0 +1,350 @@
+package net.steelphoenix.nbtlib;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The built-in compression formats.
+ *
+ * @author SteelPhoenix
+ */
+enum BuiltinCompression implements NBTCompression {
+
+	/**
+	 * GZIP
+	 */
+	GZIP ("gzip") {
+
+		@Override
+		public boolean matches(byte[] bytes, int offset, int length) {
+			checkRange(bytes, offset, length);
+			return length >= 2 && bytes[offset] == (byte) 0x1F && bytes[offset + 1] == (byte) 0x8B;
+		}
+
+		@Override
+		public ByteBuffer decompress(byte[] bytes, int offset, int length, long max) {
+			checkRange(bytes, offset, length);
+			checkMax(max);
+			int end = offset + length;
+			if (length < 18 || bytes[offset] != (byte) 0x1F || bytes[offset + 1] != (byte) 0x8B) {
+				throw new MalformedNBTException("Not in GZIP format");
+			}
+			if (bytes[offset + 2] != Deflater.DEFLATED) {
+				throw new MalformedNBTException("Unsupported GZIP compression method: " + bytes[offset + 2]);
+			}
+
+			// Skip optional header fields
+			int flags = bytes[offset + 3] & 0xFF;
+			int i = offset + 10;
+			if ((flags & 4) != 0) {
+				if (i + 2 > end) {
+					throw new MalformedNBTException("Truncated GZIP header");
+				}
+				i += 2 + getUnsignedShortLE(bytes, i);
+			}
+			if ((flags & 8) != 0) {
+				i = skipZeroTerminated(bytes, i, end);
+			}
+			if ((flags & 16) != 0) {
+				i = skipZeroTerminated(bytes, i, end);
+			}
+			if ((flags & 2) != 0) {
+				i += 2;
+			}
+			if (i > end) {
+				throw new MalformedNBTException("Truncated GZIP header");
+			}
+
+			Inflater inflater = CompressionPool.getInflater(true);
+			try {
+				ByteBuffer buffer = inflate(inflater, bytes, i, end - i, max);
+
+				// Check the trailer
+				int trailer = end - inflater.getRemaining();
+				if (trailer + 8 > end) {
+					throw new MalformedNBTException("Truncated GZIP trailer");
+				}
+				CRC32 crc = new CRC32();
+				crc.update(buffer.array(), 0, buffer.limit());
+				if (getIntLE(bytes, trailer) != (int) crc.getValue()) {
+					throw new MalformedNBTException("Corrupt GZIP data (CRC mismatch)");
+				}
+				if (getIntLE(bytes, trailer + 4) != buffer.limit()) {
+					throw new MalformedNBTException("Corrupt GZIP data (size mismatch)");
+				}
+				return buffer;
+			} finally {
+				CompressionPool.release(inflater, true);
+			}
+		}
+
+		@Override
+		public byte[] compress(byte[] bytes, int offset, int length) {
+			checkRange(bytes, offset, length);
+			Deflater deflater = CompressionPool.getDeflater(true);
+			byte[] array;
+			try {
+				array = deflate(deflater, bytes, offset, length, 10, 8);
+			} finally {
+				CompressionPool.release(deflater, true);
+			}
+
+			// Header with no flags, no time and an unknown OS
+			array[0] = (byte) 0x1F;
+			array[1] = (byte) 0x8B;
+			array[2] = Deflater.DEFLATED;
+			array[9] = (byte) 0xFF;
+
+			CRC32 crc = new CRC32();
+			crc.update(bytes, offset, length);
+			putIntLE(array, array.length - 8, (int) crc.getValue());
+			putIntLE(array, array.length - 4, length);
+			return array;
+		}
+	},
+
+	/**
+	 * Zlib
+	 */
+	ZLIB ("zlib") {
+
+		@Override
+		public boolean matches(byte[] bytes, int offset, int length) {
+			checkRange(bytes, offset, length);
+			// Deflate method with a valid header check
+			return length >= 2 && (bytes[offset] & 0x0F) == Deflater.DEFLATED && ((bytes[offset] & 0xFF) << 8 | bytes[offset + 1] & 0xFF) % 31 == 0;
+		}
+
+		@Override
+		public ByteBuffer decompress(byte[] bytes, int offset, int length, long max) {
+			checkRange(bytes, offset, length);
+			checkMax(max);
+			Inflater inflater = CompressionPool.getInflater(false);
+			try {
+				return inflate(inflater, bytes, offset, length, max);
+			} finally {
+				CompressionPool.release(inflater, false);
+			}
+		}
+
+		@Override
+		public byte[] compress(byte[] bytes, int offset, int length) {
+			checkRange(bytes, offset, length);
+			Deflater deflater = CompressionPool.getDeflater(false);
+			try {
+				return deflate(deflater, bytes, offset, length, 0, 0);
+			} finally {
+				CompressionPool.release(deflater, false);
+			}
+		}
+	},
+
+	/**
+	 * Uncompressed
+	 */
+	NONE ("none") {
+
+		@Override
+		public boolean matches(byte[] bytes, int offset, int length) {
+			checkRange(bytes, offset, length);
+			// Binary NBT always has a compound root
+			return length >= 1 && bytes[offset] == NBTTagType.COMPOUND.getId();
+		}
+
+		@Override
+		public ByteBuffer decompress(byte[] bytes, int offset, int length, long max) {
+			checkRange(bytes, offset, length);
+			checkMax(max);
+			if (length > max) {
+				throw tooLarge(max);
+			}
+			return ByteBuffer.wrap(bytes, offset, length);
+		}
+
+		@Override
+		public byte[] compress(byte[] bytes, int offset, int length) {
+			checkRange(bytes, offset, length);
+			return Arrays.copyOfRange(bytes, offset, offset + length);
+		}
+	};
+
+	private final String name;
+
+	private BuiltinCompression(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public ByteBuffer decompress(byte[] bytes, int offset, int length) {
+		return decompress(bytes, offset, length, Long.MAX_VALUE);
+	}
+
+	@Override
+	public abstract ByteBuffer decompress(byte[] bytes, int offset, int length, long max);
+
+	/**
+	 * Check if a byte range is valid.
+	 *
+	 * @param bytes Source bytes.
+	 * @param offset Start offset.
+	 * @param length Byte count.
+	 */
+	private static void checkRange(byte[] bytes, int offset, int length) {
+		// Preconditions
+		if (bytes == null) {
+			throw new NullPointerException("Bytes cannot be null");
+		}
+		if (offset < 0 || length < 0 || offset > bytes.length - length) {
+			throw new IndexOutOfBoundsException("Invalid range for array of size " + bytes.length + ": [" + offset + ", " + ((long) offset + length) + ")");
+		}
+	}
+
+	/**
+	 * Check if a maximum decompressed size is valid.
+	 *
+	 * @param max Maximum decompressed size.
+	 */
+	private static void checkMax(long max) {
+		// Preconditions
+		if (max < 0L) {
+			throw new IllegalArgumentException("Maximum cannot be negative");
+		}
+	}
+
+	/**
+	 * Create the exception for data that decompresses past its maximum size.
+	 *
+	 * @param max Maximum decompressed size.
+	 * @return the exception.
+	 */
+	private static MalformedNBTException tooLarge(long max) {
+		return new MalformedNBTException("Decompressed data is larger than allowed (" + max + " byte(s))");
+	}
+
+	/**
+	 * Inflate data completely.
+	 * The output buffer never grows more than one byte past the maximum size.
+	 *
+	 * @param inflater Target inflater.
+	 * @param bytes Source bytes.
+	 * @param offset Start offset.
+	 * @param length Byte count.
+	 * @param max Maximum inflated size.
+	 * @return a heap buffer with the inflated data.
+	 */
+	private static ByteBuffer inflate(Inflater inflater, byte[] bytes, int offset, int length, long max) {
+		inflater.setInput(bytes, offset, length);
+		// One byte past the maximum is enough to tell it was exceeded
+		int capacity = max >= Integer.MAX_VALUE - 8 ? Integer.MAX_VALUE - 8 : (int) max + 1;
+		byte[] array = new byte[(int) Math.min(capacity, Math.max(256L, length * 4L))];
+		int count = 0;
+		try {
+			while (!inflater.finished()) {
+				if (count == array.length) {
+					if (array.length == Integer.MAX_VALUE - 8) {
+						throw new MalformedNBTException("Decompressed data is too large");
+					}
+					array = Arrays.copyOf(array, (int) Math.min(capacity, array.length * 2L));
+				}
+				int read = inflater.inflate(array, count, array.length - count);
+				if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new MalformedNBTException("Truncated compressed data");
+				}
+				count += read;
+				if (count > max) {
+					throw tooLarge(max);
+				}
+			}
+		} catch (DataFormatException exception) {
+			throw new MalformedNBTException(exception);
+		}
+		return ByteBuffer.wrap(array, 0, count);
+	}
+
+	/**
+	 * Deflate data completely.
+	 *
+	 * @param deflater Target deflater.
+	 * @param bytes Source bytes.
+	 * @param offset Start offset.
+	 * @param length Byte count.
+	 * @param header Bytes to leave free before the deflated data.
+	 * @param trailer Bytes to leave free after the deflated data.
+	 * @return the deflated data with room for the header and trailer.
+	 */
+	private static byte[] deflate(Deflater deflater, byte[] bytes, int offset, int length, int header, int trailer) {
+		deflater.setInput(bytes, offset, length);
+		deflater.finish();
+		byte[] array = new byte[header + 64 + length / 2];
+		int count = header;
+		while (!deflater.finished()) {
+			if (count == array.length) {
+				array = Arrays.copyOf(array, (int) Math.min(Integer.MAX_VALUE - 8, array.length * 2L));
+			}
+			count += deflater.deflate(array, count, array.length - count);
+		}
+		return Arrays.copyOf(array, count + trailer);
+	}
+
+	/**
+	 * Skip a zero terminated header field.
+	 *
+	 * @param bytes Source bytes.
+	 * @param index Field start.
+	 * @param end End of the data.
+	 * @return the index after the field.
+	 */
+	private static int skipZeroTerminated(byte[] bytes, int index, int end) {
+		while (index < end) {
+			if (bytes[index++] == 0) {
+				return index;
+			}
+		}
+		throw new MalformedNBTException("Truncated GZIP header");
+	}
+
+	/**
+	 * Get a little endian unsigned short.
+	 *
+	 * @param bytes Source bytes.
+	 * @param index Target index.
+	 * @return the value.
+	 */
+	private static int getUnsignedShortLE(byte[] bytes, int index) {
+		return (bytes[index] & 0xFF) | (bytes[index + 1] & 0xFF) << 8;
+	}
+
+	/**
+	 * Get a little endian int.
+	 *
+	 * @param bytes Source bytes.
+	 * @param index Target index.
+	 * @return the value.
+	 */
+	private static int getIntLE(byte[] bytes, int index) {
+		return (bytes[index] & 0xFF) | (bytes[index + 1] & 0xFF) << 8 | (bytes[index + 2] & 0xFF) << 16 | (bytes[index + 3] & 0xFF) << 24;
+	}
+
+	/**
+	 * Put a little endian int.
+	 *
+	 * @param bytes Target bytes.
+	 * @param index Target index.
+	 * @param value Target value.
+	 */
+	private static void putIntLE(byte[] bytes, int index, int value) {
+		bytes[index] = (byte) value;
+		bytes[index + 1] = (byte) (value >>> 8);
+		bytes[index + 2] = (byte) (value >>> 16);
+		bytes[index + 3] = (byte) (value >>> 24);
+	}
+}
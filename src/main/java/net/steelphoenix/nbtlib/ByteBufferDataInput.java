@@ -0,0 +1,223 @@
+package net.steelphoenix.nbtlib;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A data input reading directly from a byte buffer.
+ * The source buffer is read using absolute positions and is not modified.
+ *
+ * @author SteelPhoenix
+ */
+class ByteBufferDataInput implements DataInput {
+
+	private final ByteBuffer buffer;
+	private final int limit;
+	private int position;
+
+	ByteBufferDataInput(ByteBuffer buffer) {
+		// Preconditions
+		if (buffer == null) {
+			throw new NullPointerException("Buffer cannot be null");
+		}
+
+		// Duplicate so we do not depend on the byte order of the source buffer
+		this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		this.limit = buffer.limit();
+		this.position = buffer.position();
+	}
+
+	private ByteBufferDataInput(ByteBuffer buffer, int limit, int position) {
+		this.buffer = buffer;
+		this.limit = limit;
+		this.position = position;
+	}
+
+	/**
+	 * Create an input reading the same source from a given position.
+	 * The created input has its own view of the source so it can be used on another thread.
+	 *
+	 * @param position Target position.
+	 * @return the created input.
+	 */
+	ByteBufferDataInput at(int position) {
+		// Preconditions
+		if (position < 0 || position > limit) {
+			throw new IndexOutOfBoundsException("Invalid position for buffer with limit " + limit + ": " + position);
+		}
+
+		return new ByteBufferDataInput(buffer.duplicate().order(ByteOrder.BIG_ENDIAN), limit, position);
+	}
+
+	/**
+	 * Get the current read position in the source buffer.
+	 *
+	 * @return the position.
+	 */
+	int getPosition() {
+		return position;
+	}
+
+	@Override
+	public void readFully(byte[] bytes) throws IOException {
+		readFully(bytes, 0, bytes.length);
+	}
+
+	@Override
+	public void readFully(byte[] bytes, int offset, int length) throws IOException {
+		int index = require(length);
+		buffer.position(index);
+		buffer.get(bytes, offset, length);
+	}
+
+	/**
+	 * Read ints into an array.
+	 *
+	 * @param array Target array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	void readFully(int[] array) throws IOException {
+		int index = require(4L * array.length);
+		buffer.position(index);
+		buffer.asIntBuffer().get(array);
+	}
+
+	/**
+	 * Read longs into an array.
+	 *
+	 * @param array Target array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	void readFully(long[] array) throws IOException {
+		int index = require(8L * array.length);
+		buffer.position(index);
+		buffer.asLongBuffer().get(array);
+	}
+
+	@Override
+	public int skipBytes(int count) {
+		int skipped = Math.max(0, Math.min(count, limit - position));
+		position += skipped;
+		return skipped;
+	}
+
+	@Override
+	public boolean readBoolean() throws IOException {
+		return readByte() != 0;
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		return buffer.get(require(1));
+	}
+
+	@Override
+	public int readUnsignedByte() throws IOException {
+		return readByte() & 0xFF;
+	}
+
+	@Override
+	public short readShort() throws IOException {
+		return buffer.getShort(require(2));
+	}
+
+	@Override
+	public int readUnsignedShort() throws IOException {
+		return readShort() & 0xFFFF;
+	}
+
+	@Override
+	public char readChar() throws IOException {
+		return buffer.getChar(require(2));
+	}
+
+	@Override
+	public int readInt() throws IOException {
+		return buffer.getInt(require(4));
+	}
+
+	@Override
+	public long readLong() throws IOException {
+		return buffer.getLong(require(8));
+	}
+
+	@Override
+	public float readFloat() throws IOException {
+		return buffer.getFloat(require(4));
+	}
+
+	@Override
+	public double readDouble() throws IOException {
+		return buffer.getDouble(require(8));
+	}
+
+	@Override
+	public String readLine() {
+		throw new UnsupportedOperationException("Lines are not supported");
+	}
+
+	@Override
+	public String readUTF() throws IOException {
+		return readUTF(null);
+	}
+
+	/**
+	 * Read a modified UTF-8 string.
+	 *
+	 * @param table Table to deduplicate the string with or null to not deduplicate.
+	 * @return the read string.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	String readUTF(NBTStringTable table) throws IOException {
+		int length = readUnsignedShort();
+		int index = require(length);
+
+		// Decode in place if possible
+		byte[] bytes;
+		int offset;
+		if (buffer.hasArray()) {
+			bytes = buffer.array();
+			offset = buffer.arrayOffset() + index;
+		}
+		else {
+			bytes = NBTIOUtil.byteScratch(length);
+			offset = 0;
+			buffer.position(index);
+			buffer.get(bytes, 0, length);
+		}
+		return table == null ? NBTIOUtil.decodeUTF(bytes, offset, length) : table.get(bytes, offset, length);
+	}
+
+	/**
+	 * Check that a given amount of bytes remains without claiming them.
+	 * This is used to reject bogus lengths before allocating.
+	 *
+	 * @param count Target count.
+	 * @throws EOFException if there are not enough bytes remaining.
+	 */
+	void ensureRemaining(long count) throws EOFException {
+		if (limit - position < count) {
+			throw new EOFException("Expected " + count + " byte(s) but only " + (limit - position) + " remain");
+		}
+	}
+
+	/**
+	 * Claim a given amount of bytes.
+	 *
+	 * @param count Target count.
+	 * @return the index of the first claimed byte.
+	 * @throws EOFException if there are not enough bytes remaining.
+	 */
+	private int require(long count) throws EOFException {
+		if (limit - position < count) {
+			throw new EOFException("Expected " + count + " byte(s) but only " + (limit - position) + " remain");
+		}
+
+		int index = position;
+		position += (int) count;
+		return index;
+	}
+}
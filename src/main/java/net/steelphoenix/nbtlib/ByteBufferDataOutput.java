@@ -0,0 +1,180 @@
+package net.steelphoenix.nbtlib;
+
+import java.io.DataOutput;
+import java.io.UTFDataFormatException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A data output writing directly to a byte buffer.
+ * The target buffer is written using absolute positions and its position is not modified.
+ *
+ * @author SteelPhoenix
+ */
+class ByteBufferDataOutput implements DataOutput {
+
+	private final ByteBuffer buffer;
+	private final int limit;
+	private int position;
+
+	ByteBufferDataOutput(ByteBuffer buffer) {
+		// Preconditions
+		if (buffer == null) {
+			throw new NullPointerException("Buffer cannot be null");
+		}
+		if (buffer.isReadOnly()) {
+			throw new IllegalArgumentException("Buffer cannot be read-only");
+		}
+
+		// Duplicate so we do not depend on the byte order of the target buffer
+		this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		this.limit = buffer.limit();
+		this.position = buffer.position();
+	}
+
+	/**
+	 * Get the current write position in the target buffer.
+	 *
+	 * @return the position.
+	 */
+	int getPosition() {
+		return position;
+	}
+
+	@Override
+	public void write(int value) {
+		buffer.put(require(1), (byte) value);
+	}
+
+	@Override
+	public void write(byte[] bytes) {
+		write(bytes, 0, bytes.length);
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) {
+		int index = require(length);
+		buffer.position(index);
+		buffer.put(bytes, offset, length);
+	}
+
+	/**
+	 * Write an int array.
+	 *
+	 * @param array Target array.
+	 */
+	void write(int[] array) {
+		int index = require(4L * array.length);
+		buffer.position(index);
+		buffer.asIntBuffer().put(array);
+	}
+
+	/**
+	 * Write a long array.
+	 *
+	 * @param array Target array.
+	 */
+	void write(long[] array) {
+		int index = require(8L * array.length);
+		buffer.position(index);
+		buffer.asLongBuffer().put(array);
+	}
+
+	@Override
+	public void writeBoolean(boolean value) {
+		write(value ? 1 : 0);
+	}
+
+	@Override
+	public void writeByte(int value) {
+		write(value);
+	}
+
+	@Override
+	public void writeShort(int value) {
+		buffer.putShort(require(2), (short) value);
+	}
+
+	@Override
+	public void writeChar(int value) {
+		buffer.putChar(require(2), (char) value);
+	}
+
+	@Override
+	public void writeInt(int value) {
+		buffer.putInt(require(4), value);
+	}
+
+	@Override
+	public void writeLong(long value) {
+		buffer.putLong(require(8), value);
+	}
+
+	@Override
+	public void writeFloat(float value) {
+		buffer.putFloat(require(4), value);
+	}
+
+	@Override
+	public void writeDouble(double value) {
+		buffer.putDouble(require(8), value);
+	}
+
+	@Override
+	public void writeBytes(String string) {
+		for (int i = 0; i < string.length(); i++) {
+			write(string.charAt(i));
+		}
+	}
+
+	@Override
+	public void writeChars(String string) {
+		for (int i = 0; i < string.length(); i++) {
+			writeChar(string.charAt(i));
+		}
+	}
+
+	@Override
+	public void writeUTF(String string) throws UTFDataFormatException {
+		int length = NBTIOUtil.getUTFLength(string);
+		if (length > 0xFFFF) {
+			throw new UTFDataFormatException("Encoded string too long: " + length + " bytes");
+		}
+
+		writeShort(length);
+		int index = require(length);
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c >= 0x0001 && c <= 0x007F) {
+				buffer.put(index++, (byte) c);
+			}
+			else if (c <= 0x07FF) {
+				buffer.put(index++, (byte) (0xC0 | ((c >> 6) & 0x1F)));
+				buffer.put(index++, (byte) (0x80 | (c & 0x3F)));
+			}
+			else {
+				buffer.put(index++, (byte) (0xE0 | ((c >> 12) & 0x0F)));
+				buffer.put(index++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+				buffer.put(index++, (byte) (0x80 | (c & 0x3F)));
+			}
+		}
+	}
+
+	/**
+	 * Claim a given amount of bytes.
+	 *
+	 * @param count Target count.
+	 * @return the index of the first claimed byte.
+	 * @throws BufferOverflowException if there is not enough space remaining.
+	 */
+	private int require(long count) {
+		if (limit - position < count) {
+			throw new BufferOverflowException();
+		}
+
+		int index = position;
+		position += (int) count;
+		return index;
+	}
+}
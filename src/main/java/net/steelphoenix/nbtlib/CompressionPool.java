@@ -0,0 +1,104 @@
+package net.steelphoenix.nbtlib;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A pool of inflaters and deflaters.
+ * Instances are reset when released and ended when the pool is full.
+ *
+ * @author SteelPhoenix
+ */
+class CompressionPool {
+
+	// Pooled instances per kind
+	private static final int CAPACITY = 2 * Runtime.getRuntime().availableProcessors();
+	private static final Deque<Inflater> INFLATERS = new ArrayDeque<>();
+	private static final Deque<Inflater> RAW_INFLATERS = new ArrayDeque<>();
+	private static final Deque<Deflater> DEFLATERS = new ArrayDeque<>();
+	private static final Deque<Deflater> RAW_DEFLATERS = new ArrayDeque<>();
+
+	private CompressionPool() {
+		// Nothing
+	}
+
+	/**
+	 * Get an inflater.
+	 * Note that it should be released when done.
+	 *
+	 * @param nowrap If raw deflate data is inflated.
+	 * @return the inflater.
+	 */
+	static Inflater getInflater(boolean nowrap) {
+		Deque<Inflater> deque = nowrap ? RAW_INFLATERS : INFLATERS;
+		Inflater inflater;
+		synchronized (deque) {
+			inflater = deque.pollFirst();
+		}
+		return inflater == null ? new Inflater(nowrap) : inflater;
+	}
+
+	/**
+	 * Release an inflater.
+	 *
+	 * @param inflater Target inflater.
+	 * @param nowrap If the inflater inflates raw deflate data.
+	 */
+	static void release(Inflater inflater, boolean nowrap) {
+		// Preconditions
+		if (inflater == null) {
+			throw new NullPointerException("Inflater cannot be null");
+		}
+
+		inflater.reset();
+		Deque<Inflater> deque = nowrap ? RAW_INFLATERS : INFLATERS;
+		synchronized (deque) {
+			if (deque.size() < CAPACITY) {
+				deque.addFirst(inflater);
+				return;
+			}
+		}
+		inflater.end();
+	}
+
+	/**
+	 * Get a deflater.
+	 * Note that it should be released when done.
+	 *
+	 * @param nowrap If raw deflate data is created.
+	 * @return the deflater.
+	 */
+	static Deflater getDeflater(boolean nowrap) {
+		Deque<Deflater> deque = nowrap ? RAW_DEFLATERS : DEFLATERS;
+		Deflater deflater;
+		synchronized (deque) {
+			deflater = deque.pollFirst();
+		}
+		return deflater == null ? new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap) : deflater;
+	}
+
+	/**
+	 * Release a deflater.
+	 *
+	 * @param deflater Target deflater.
+	 * @param nowrap If the deflater creates raw deflate data.
+	 */
+	static void release(Deflater deflater, boolean nowrap) {
+		// Preconditions
+		if (deflater == null) {
+			throw new NullPointerException("Deflater cannot be null");
+		}
+
+		deflater.reset();
+		Deque<Deflater> deque = nowrap ? RAW_DEFLATERS : DEFLATERS;
+		synchronized (deque) {
+			if (deque.size() < CAPACITY) {
+				deque.addFirst(deflater);
+				return;
+			}
+		}
+		deflater.end();
+	}
+}
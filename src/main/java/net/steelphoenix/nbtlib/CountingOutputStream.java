@@ -0,0 +1,40 @@
+package net.steelphoenix.nbtlib;
+
+import java.io.OutputStream;
+
+/**
+ * An output stream that discards data and counts the written bytes.
+ *
+ * @author SteelPhoenix
+ */
+class CountingOutputStream extends OutputStream {
+
+	private long count = 0L;
+
+	/**
+	 * Get the amount of bytes written.
+	 *
+	 * @return the byte count.
+	 */
+	long getCount() {
+		return count;
+	}
+
+	@Override
+	public void write(int b) {
+		count++;
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) {
+		// Preconditions
+		if (bytes == null) {
+			throw new NullPointerException("Bytes cannot be null");
+		}
+		if (offset < 0 || length < 0 || offset > bytes.length - length) {
+			throw new IndexOutOfBoundsException("Invalid range for array of size " + bytes.length + ": [" + offset + ", " + ((long) offset + length) + ")");
+		}
+
+		count += length;
+	}
+}
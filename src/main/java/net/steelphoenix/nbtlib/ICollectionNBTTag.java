@@ -23,4 +23,14 @@ public interface ICollectionNBTTag<E extends INBTTag<?>> extends INBTTag<List<E>
 	 * @return the element type id.
 	 */
 	public byte getElementTypeId();
+
+	/**
+	 * Get a read-only view of the elements.
+	 * Unlike {@link #getValue()} this does not copy anything.
+	 * Elements are handed out as read-only views or immutable tags, so nothing can be changed through the view.
+	 * Note that elements that do not extend {@link AbstractNBTTag} are handed out as is.
+	 *
+	 * @return the view.
+	 */
+	public List<E> asListView();
 }
\ No newline at end of file
@@ -9,5 +9,14 @@ import java.util.Map;
  * @author SteelPhoenix
  */
 public interface IMapNBTTag<V extends INBTTag<?>> extends INBTTag<Map<String, V>>, Map<String, V> {
-	// Nothing
+
+	/**
+	 * Get a read-only view of the entries.
+	 * Unlike {@link #getValue()} this does not copy anything.
+	 * Values are handed out as read-only views or immutable tags, so nothing can be changed through the view.
+	 * Note that values that do not extend {@link AbstractNBTTag} are handed out as is.
+	 *
+	 * @return the view.
+	 */
+	public Map<String, V> asMapView();
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package net.steelphoenix.nbtlib;
 
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * A named binary tag.
@@ -27,7 +29,7 @@ public interface INBTTag<T> {
 
 	/**
 	 * Get the tag value.
-	 * Note that this returns a snapshot.
+	 * Note that this returns a snapshot, compound, list and array tags have views to only look at their values.
 	 *
 	 * @return the value.
 	 */
@@ -44,14 +46,35 @@ public interface INBTTag<T> {
 	/**
 	 * Write the tag to a data output.
 	 * Note that this requires the tag to be valid.
+	 * Compound and list tags are checked while they are written, so invalid tags may be partially written.
 	 *
 	 * @param output Target data output.
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public void write(DataOutput output) throws IOException;
 
+	/**
+	 * Get the amount of bytes {@link #write(DataOutput)} writes.
+	 * Note that this is only exact for valid tags.
+	 * The default implementation writes the tag and counts the bytes, built-in tags compute the size directly.
+	 * Compound and list tags cache the size until they or any tag inside them changes.
+	 * Note that they only cache it while every tag inside them extends {@link AbstractNBTTag}, as other tags cannot report their changes.
+	 *
+	 * @return the serialized size.
+	 */
+	public default long serializedSize() {
+		CountingOutputStream counter = new CountingOutputStream();
+		try {
+			write(new DataOutputStream(counter));
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return counter.getCount();
+	}
+
 	/**
 	 * Create a copy of this tag.
+	 * Note that compound and list tags share their value with the copy until either one is changed.
 	 *
 	 * @return the copy.
 	 */
@@ -74,6 +97,28 @@ public interface INBTTag<T> {
 	 */
 	public String asSNBT(boolean pretty);
 
+	/**
+	 * Write a stringified NBT representation of this tag.
+	 * Output is streamed so nested tags are not built as separate strings.
+	 * Note that this requires the tag to be valid.
+	 * The default implementation appends {@link #asSNBT(boolean)}, so only compactness is taken from the options.
+	 *
+	 * @param output Target output.
+	 * @param options Write options.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public default void writeSNBT(Appendable output, SNBTOptions options) throws IOException {
+		// Preconditions
+		if (output == null) {
+			throw new NullPointerException("Output cannot be null");
+		}
+		if (options == null) {
+			throw new NullPointerException("Options cannot be null");
+		}
+
+		output.append(asSNBT(!options.isCompact()));
+	}
+
 	/**
 	 * Check if the tag is valid.
 	 *
@@ -0,0 +1,370 @@
+package net.steelphoenix.nbtlib;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.steelphoenix.nbtlib.tag.NBTTagCompound;
+import net.steelphoenix.nbtlib.tag.NBTTagList;
+
+/**
+ * A compound map that decodes its values on first access.
+ * Reading only records where each value starts in the source buffer.
+ * Note that the source buffer may not be modified while values have not been decoded yet.
+ * Values are decoded under a lock shared by the whole tag that was read, as they also share the size limiter.
+ * This makes concurrent readers safe, concurrent writers are not.
+ * Replacing or removing a value that has not been decoded yet returns null instead of decoding it.
+ *
+ * @author SteelPhoenix
+ */
+class LazyCompoundMap extends AbstractMap<String, INBTTag<?>> {
+
+	private final ByteBufferDataInput source;
+	private final NBTSizeLimiter limiter;
+	private final NBTReadOptions options;
+	private final Object lock;
+	// Values are either decoded tags or pending values
+	private final Map<String, Object> map;
+	private Set<Entry<String, INBTTag<?>>> entrySet;
+
+	private LazyCompoundMap(ByteBufferDataInput source, NBTSizeLimiter limiter, NBTReadOptions options, Object lock, Map<String, Object> map) {
+		this.source = source;
+		this.limiter = limiter;
+		this.options = options;
+		this.lock = lock;
+		this.map = map;
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return map.containsKey(key);
+	}
+
+	@Override
+	public INBTTag<?> get(Object key) {
+		synchronized (lock) {
+			Object value = map.get(key);
+			if (!(value instanceof Pending)) {
+				return (INBTTag<?>) value;
+			}
+
+			INBTTag<?> tag = decode((Pending) value);
+			map.put((String) key, tag);
+			return tag;
+		}
+	}
+
+	@Override
+	public INBTTag<?> put(String key, INBTTag<?> value) {
+		return decoded(map.put(key, value));
+	}
+
+	@Override
+	public INBTTag<?> remove(Object key) {
+		return decoded(map.remove(key));
+	}
+
+	@Override
+	public void clear() {
+		map.clear();
+	}
+
+	@Override
+	public Set<Entry<String, INBTTag<?>>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+
+	/**
+	 * Get a discarded value if it was decoded.
+	 * Pending values are not decoded as that would decode the whole discarded subtree.
+	 *
+	 * @param value Target value.
+	 * @return the decoded value or null if it is pending.
+	 */
+	private static INBTTag<?> decoded(Object value) {
+		return value instanceof Pending ? null : (INBTTag<?>) value;
+	}
+
+	/**
+	 * Decode a pending value.
+	 *
+	 * @param pending Target value.
+	 * @return the decoded value.
+	 */
+	private INBTTag<?> decode(Pending pending) {
+		try {
+			return read(pending.type, source.at(pending.position), pending.depth, limiter, options, lock);
+		} catch (IOException exception) {
+			// The structure was checked when skipping so this means the data itself is malformed
+			throw new MalformedNBTException(exception);
+		}
+	}
+
+	/**
+	 * Read a tag lazily.
+	 * Compound tags and lists of compound tags are read lazily, other tags are read eagerly.
+	 *
+	 * @param type Tag type.
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @param limiter Size limiter.
+	 * @param options Read options.
+	 * @param lock Lock to decode values under.
+	 * @return the read tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static INBTTag<?> read(NBTTagType type, ByteBufferDataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options, Object lock) throws IOException {
+		if (type == NBTTagType.COMPOUND) {
+			return readCompound(input, depth, limiter, options, lock);
+		}
+		if (type == NBTTagType.LIST) {
+			return readList(input, depth, limiter, options, lock);
+		}
+		return type.read(input, depth, limiter, options);
+	}
+
+	/**
+	 * Read a compound tag lazily.
+	 * This records the position of every value and skips over it.
+	 *
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @param limiter Size limiter.
+	 * @param options Read options.
+	 * @return the read tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	static NBTTagCompound readCompound(ByteBufferDataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+		return readCompound(input, depth, limiter, options, new Object());
+	}
+
+	/**
+	 * Read a compound tag lazily.
+	 *
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @param limiter Size limiter.
+	 * @param options Read options.
+	 * @param lock Lock to decode values under.
+	 * @return the read tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static NBTTagCompound readCompound(ByteBufferDataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options, Object lock) throws IOException {
+		// Preconditions
+		if (input == null) {
+			throw new NullPointerException("Input cannot be null");
+		}
+		if (limiter == null) {
+			throw new NullPointerException("Limiter cannot be null");
+		}
+		if (options == null) {
+			throw new NullPointerException("Options cannot be null");
+		}
+		if (depth < 0) {
+			throw new IllegalArgumentException("Depth cannot be negative");
+		}
+		if (depth > 512) {
+			throw new MalformedNBTException("Depth exceeds max depth: " + depth);
+		}
+
+		limiter.addBytesRead(48L);
+		Map<String, Object> map = new LinkedHashMap<>();
+		while (true) {
+			byte id = input.readByte();
+			NBTTagType type = NBTTagType.fromId(id);
+			if (type == null) {
+				throw new MalformedNBTException("Unknown tag type: " + id);
+			}
+
+			// Last entry
+			if (type == NBTTagType.END) {
+				break;
+			}
+
+			String key = input.readUTF(options.getStringTable());
+			limiter.addBytesRead(28L + 2L * key.length());
+			Pending pending = new Pending(type, input.getPosition(), depth + 1);
+			type.skip(input, depth + 1);
+			if (map.put(key, pending) != null) {
+				limiter.addBytesRead(36L);
+			}
+		}
+		NBTTagCompound tag = new NBTTagCompound();
+		tag.setValue0(new LazyCompoundMap(input, limiter, options, lock, map));
+		return tag;
+	}
+
+	/**
+	 * Read a list tag with lazily read compound elements.
+	 *
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @param limiter Size limiter.
+	 * @param options Read options.
+	 * @param lock Lock to decode values under.
+	 * @return the read tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static INBTTag<?> readList(ByteBufferDataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options, Object lock) throws IOException {
+		// Only lists of compound tags benefit from reading lazily
+		if (input.at(input.getPosition()).readByte() != NBTTagType.COMPOUND.getId()) {
+			return NBTTagType.LIST.read(input, depth, limiter, options);
+		}
+		if (depth > 512) {
+			throw new MalformedNBTException("Depth exceeds max depth: " + depth);
+		}
+
+		limiter.addBytesRead(37L);
+		input.readByte();
+		int size = input.readInt();
+		if (size < 0) {
+			throw new MalformedNBTException("Negative list size");
+		}
+		limiter.addBytesRead(32L * size);
+
+		List<INBTTag<?>> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(readCompound(input, depth + 1, limiter, options, lock));
+		}
+		NBTTagList tag = new NBTTagList();
+		tag.setElementType(NBTTagType.COMPOUND);
+		tag.setValue0(list);
+		return tag;
+	}
+
+	/**
+	 * The entry set view.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private class EntrySet extends AbstractSet<Entry<String, INBTTag<?>>> {
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+		@Override
+		public void clear() {
+			map.clear();
+		}
+
+		@Override
+		public Iterator<Entry<String, INBTTag<?>>> iterator() {
+			Iterator<Entry<String, Object>> iterator = map.entrySet().iterator();
+			return new Iterator<Entry<String, INBTTag<?>>>() {
+
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public Entry<String, INBTTag<?>> next() {
+					return new LazyEntry(iterator.next());
+				}
+
+				@Override
+				public void remove() {
+					iterator.remove();
+				}
+			};
+		}
+	}
+
+	/**
+	 * An entry that decodes its value on first access.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private class LazyEntry implements Entry<String, INBTTag<?>> {
+
+		private final Entry<String, Object> entry;
+
+		private LazyEntry(Entry<String, Object> entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public String getKey() {
+			return entry.getKey();
+		}
+
+		@Override
+		public INBTTag<?> getValue() {
+			synchronized (lock) {
+				Object value = entry.getValue();
+				if (!(value instanceof Pending)) {
+					return (INBTTag<?>) value;
+				}
+
+				INBTTag<?> tag = decode((Pending) value);
+				entry.setValue(tag);
+				return tag;
+			}
+		}
+
+		@Override
+		public INBTTag<?> setValue(INBTTag<?> value) {
+			return decoded(entry.setValue(value));
+		}
+
+		@Override
+		public int hashCode() {
+			INBTTag<?> value = getValue();
+			return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof Entry)) {
+				return false;
+			}
+			Entry<?, ?> other = (Entry<?, ?>) object;
+			INBTTag<?> value = getValue();
+			return getKey().equals(other.getKey()) && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+
+	/**
+	 * A value that has not been decoded yet.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Pending {
+
+		private final NBTTagType type;
+		private final int position;
+		private final int depth;
+
+		private Pending(NBTTagType type, int position, int depth) {
+			this.type = type;
+			this.position = position;
+			this.depth = depth;
+		}
+	}
+}
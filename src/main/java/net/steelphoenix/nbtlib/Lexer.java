@@ -2,24 +2,37 @@ package net.steelphoenix.nbtlib;
 
 /**
  * A lexer for SNBT formatted strings.
+ * The lexer works directly on the given character sequence, which should not be modified while lexing.
  *
  * @author SteelPhoenix
  */
 public class Lexer {
 
 	// For some reason this does not allow a positive sign ('+') or an exponent ('e', 'E')
-	private static final CharPredicate NUMBER = c -> c >= '0' && c <= '9' || c == '.' || c == '-';
-	// For some reason this does not math non-alphanumeric non-control chars
-	private static final CharPredicate SIMPLE_STRING = c -> (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '_' || c == '+' || c == '-';
-	private static final CharPredicate WHITESPACE = Character::isWhitespace;
-	private final char[] string;
+	private static final boolean[] NUMBER = new boolean[128];
+	// Only holds ASCII whitespace, other characters are checked with Character#isWhitespace(char)
+	private static final boolean[] WHITESPACE = new boolean[128];
+	private final CharSequence string;
+	private final int length;
 	private int cursor = 0;
 
-	public Lexer(String string) {
+	static {
+		for (char c = '0'; c <= '9'; c++) {
+			NUMBER[c] = true;
+		}
+		NUMBER['.'] = true;
+		NUMBER['-'] = true;
+		for (char c = 0; c < 128; c++) {
+			WHITESPACE[c] = Character.isWhitespace(c);
+		}
+	}
+
+	public Lexer(CharSequence string) {
 		if (string == null) {
 			throw new NullPointerException("String cannot be null");
 		}
-		this.string = string.toCharArray();
+		this.string = string;
+		this.length = string.length();
 	}
 
 	/**
@@ -28,7 +41,7 @@ public class Lexer {
 	 * @return the read string.
 	 */
 	public String getReadString() {
-		return new String(string, 0, cursor);
+		return getString(0, cursor);
 	}
 
 	/**
@@ -37,7 +50,7 @@ public class Lexer {
 	 * @return the remaining string.
 	 */
 	public String getRemainingString() {
-		return new String(string, cursor, string.length - cursor);
+		return getString(cursor, length);
 	}
 
 	/**
@@ -46,7 +59,39 @@ public class Lexer {
 	 * @return the string.
 	 */
 	public String getFullString() {
-		return new String(string);
+		return string.toString();
+	}
+
+	/**
+	 * Get a part of the string.
+	 * This is used to turn spans returned by the skip methods into strings.
+	 *
+	 * @param start Start index, inclusive.
+	 * @param end End index, exclusive.
+	 * @return the part of the string.
+	 */
+	public String getString(int start, int end) {
+		// Preconditions
+		if (start < 0 || start > end || end > length) {
+			throw new IndexOutOfBoundsException("Invalid range for array of size " + length + ": [" + start + ", " + end + ")");
+		}
+
+		return string.subSequence(start, end).toString();
+	}
+
+	/**
+	 * Get the character at a given index regardless of the cursor position.
+	 *
+	 * @param index Target index.
+	 * @return the character at the given index.
+	 */
+	public char charAt(int index) {
+		// Preconditions
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("Invalid index for array of size " + length + ": " + index);
+		}
+
+		return string.charAt(index);
 	}
 
 	/**
@@ -64,7 +109,7 @@ public class Lexer {
 	 * @return the remaining length.
 	 */
 	public int getRemainingLength() {
-		return string.length - cursor;
+		return length - cursor;
 	}
 
 	/**
@@ -73,7 +118,7 @@ public class Lexer {
 	 * @return the total length.
 	 */
 	public int getTotalLength() {
-		return string.length;
+		return length;
 	}
 
 	/**
@@ -92,8 +137,8 @@ public class Lexer {
 	 */
 	public void setCursor(int cursor) {
 		// Preconditions
-		if (cursor < 0 || cursor > string.length) {
-			throw new IndexOutOfBoundsException("Invalid index for array of size " + string.length + ": " + cursor);
+		if (cursor < 0 || cursor > length) {
+			throw new IndexOutOfBoundsException("Invalid index for array of size " + length + ": " + cursor);
 		}
 
 		this.cursor = cursor;
@@ -121,7 +166,7 @@ public class Lexer {
 		}
 
 		// Overflow conscious
-		return string.length - cursor >= amount;
+		return length - cursor >= amount;
 	}
 
 	/**
@@ -146,10 +191,10 @@ public class Lexer {
 		}
 		if (!canRead(offset)) {
 			// Cast to long in case of overflows
-			throw new IndexOutOfBoundsException("Invalid index for array of size " + string.length + ": " + ((long) cursor + (long) offset));
+			throw new IndexOutOfBoundsException("Invalid index for array of size " + length + ": " + ((long) cursor + (long) offset));
 		}
 
-		return string[cursor + offset];
+		return string.charAt(cursor + offset);
 	}
 
 	/**
@@ -159,11 +204,11 @@ public class Lexer {
 	 */
 	public char read() {
 		// Preconditions
-		if (cursor >= string.length) {
-			throw new IndexOutOfBoundsException("Invalid index for array of size " + string.length + ": " + cursor);
+		if (cursor >= length) {
+			throw new IndexOutOfBoundsException("Invalid index for array of size " + length + ": " + cursor);
 		}
 
-		return string[cursor++];
+		return string.charAt(cursor++);
 	}
 
 	/**
@@ -177,7 +222,27 @@ public class Lexer {
 	 * Skip whitespace characters.
 	 */
 	public void skipWhitespace() {
-		readWhile(WHITESPACE, false, null);
+		while (cursor < length) {
+			char c = string.charAt(cursor);
+			if (c < 128 ? !WHITESPACE[c] : !Character.isWhitespace(c)) {
+				break;
+			}
+			cursor++;
+		}
+	}
+
+	/**
+	 * Skip an unquoted string.
+	 * The skipped span starts at the cursor position from before calling this.
+	 *
+	 * @return the number of characters skipped.
+	 */
+	public int skipSimpleString() {
+		int start = cursor;
+		while (cursor < length && SNBTEscaper.isSimple(string.charAt(cursor))) {
+			cursor++;
+		}
+		return cursor - start;
 	}
 
 	/**
@@ -200,7 +265,7 @@ public class Lexer {
 	 */
 	public int readInt() {
 		int start = cursor;
-		String string = readWhile(NUMBER, true, "Expected integer at index " + start);
+		String string = readWhile(NUMBER, "Expected integer at index " + start);
 		try {
 			return Integer.parseInt(string);
 		} catch (NumberFormatException exception) {
@@ -215,7 +280,7 @@ public class Lexer {
 	 */
 	public long readLong() {
 		int start = cursor;
-		String string = readWhile(NUMBER, true, "Expected long at index " + start);
+		String string = readWhile(NUMBER, "Expected long at index " + start);
 		try {
 			return Long.parseLong(string);
 		} catch (NumberFormatException exception) {
@@ -230,7 +295,7 @@ public class Lexer {
 	 */
 	public float readFloat() {
 		int start = cursor;
-		String string = readWhile(NUMBER, true, "Expected float at index " + start);
+		String string = readWhile(NUMBER, "Expected float at index " + start);
 		try {
 			return Float.parseFloat(string);
 		} catch (NumberFormatException exception) {
@@ -245,7 +310,7 @@ public class Lexer {
 	 */
 	public double readDouble() {
 		int start = cursor;
-		String string = readWhile(NUMBER, true, "Expected double at index " + start);
+		String string = readWhile(NUMBER, "Expected double at index " + start);
 		try {
 			return Double.parseDouble(string);
 		} catch (NumberFormatException exception) {
@@ -296,35 +361,38 @@ public class Lexer {
 			// Skip quote
 			skip();
 
-			StringBuilder builder = new StringBuilder();
-			boolean escaped = false;
-			while (canRead()) {
-				char c = read();
-
-				// Next character should be an escapable character
-				if (escaped) {
-					if (c == quote || c == '\\') {
-						builder.append(c);
-						escaped = false;
-						continue;
-					}
-					setCursor(cursor - 1);
-					throw new LexerException("Expected '" + quote + "' or '\' at index " + cursor);
-				}
+			// Only copy through a builder once an escape is found
+			StringBuilder builder = null;
+			int start = cursor;
+			while (cursor < length) {
+				char c = string.charAt(cursor++);
 
-				// If it is an escape we skip over it
+				// If it is an escape the next character should be an escapable character
 				if (c == '\\') {
-					escaped = true;
+					if (cursor >= length) {
+						break;
+					}
+					char next = string.charAt(cursor);
+					if (next != quote && next != '\\') {
+						throw new LexerException("Expected '" + quote + "' or '\\' at index " + cursor);
+					}
+					if (builder == null) {
+						builder = new StringBuilder(cursor - start + 16);
+					}
+					builder.append(string, start, cursor - 1);
+					start = cursor++;
 					continue;
 				}
 
 				// End of string
 				if (c == quote) {
-					return builder.toString();
+					if (builder == null) {
+						return getString(start, cursor - 1);
+					}
+					return builder
+							.append(string, start, cursor - 1)
+							.toString();
 				}
-
-				// Regular character
-				builder.append(c);
 			}
 
 			// No end quote found
@@ -332,49 +400,31 @@ public class Lexer {
 		}
 
 		// Simple string
-		return readWhile(SIMPLE_STRING, false, null);
+		int start = cursor;
+		return getString(start, start + skipSimpleString());
 	}
 
 	/**
-	 * Read a string while a predicate gets matched.
+	 * Read a string while characters are in a lookup table.
 	 *
-	 * @param predicate Target predicate.
-	 * @param required If at least one character needs to be matched.
-	 * @param message Exception message if no match is found or {@code null} for default message.
+	 * @param table Target lookup table.
+	 * @param message Exception message if no match is found.
 	 * @return the read string.
 	 */
-	private String readWhile(CharPredicate predicate, boolean required, String message) {
-		// Preconditions
-		if (predicate == null) {
-			throw new NullPointerException("Predicate cannot be null");
-		}
-
+	private String readWhile(boolean[] table, String message) {
 		int start = cursor;
-		while (canRead() && predicate.test(peek())) {
-			skip();
+		while (cursor < length) {
+			char c = string.charAt(cursor);
+			if (c >= 128 || !table[c]) {
+				break;
+			}
+			cursor++;
 		}
 
-		if (start == cursor && required) {
-			throw new LexerException(message == null ? "No match found" : message);
+		if (start == cursor) {
+			throw new LexerException(message);
 		}
 
-		return new String(string, start, cursor - start);
-	}
-
-	/**
-	 * A predicate for the primitive {@code char}.
-	 *
-	 * @author SteelPhoenix
-	 */
-	@FunctionalInterface
-	private static interface CharPredicate {
-
-		/**
-		 * Test a given character against the predicate.
-		 *
-		 * @param c Target character.
-		 * @return
-		 */
-		public boolean test(char c);
+		return getString(start, cursor);
 	}
 }
@@ -0,0 +1,80 @@
+package net.steelphoenix.nbtlib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A compression format for binary NBT data.
+ * Custom formats can be registered with {@link NBTCompressions#register(NBTCompression)} to be auto-detected.
+ * Implementations need to be thread-safe.
+ *
+ * @author SteelPhoenix
+ */
+public interface NBTCompression {
+
+	/**
+	 * Get the format name.
+	 *
+	 * @return the name.
+	 */
+	public String getName();
+
+	/**
+	 * Check if data looks like it is in this format.
+	 * This should only look at the first few bytes.
+	 *
+	 * @param bytes Source bytes.
+	 * @param offset Start offset.
+	 * @param length Byte count.
+	 * @return if the data matches.
+	 */
+	public boolean matches(byte[] bytes, int offset, int length);
+
+	/**
+	 * Decompress data.
+	 *
+	 * @param bytes Source bytes.
+	 * @param offset Start offset.
+	 * @param length Byte count.
+	 * @return a heap buffer with the decompressed data.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public ByteBuffer decompress(byte[] bytes, int offset, int length) throws IOException;
+
+	/**
+	 * Decompress data that is not allowed to grow past a maximum size.
+	 * The default implementation checks the size after decompressing completely,
+	 * implementations should override this to stop as soon as the maximum is exceeded.
+	 *
+	 * @param bytes Source bytes.
+	 * @param offset Start offset.
+	 * @param length Byte count.
+	 * @param max Maximum decompressed size.
+	 * @return a heap buffer with the decompressed data.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws MalformedNBTException if the decompressed data is larger than the maximum.
+	 */
+	public default ByteBuffer decompress(byte[] bytes, int offset, int length, long max) throws IOException {
+		// Preconditions
+		if (max < 0L) {
+			throw new IllegalArgumentException("Maximum cannot be negative");
+		}
+
+		ByteBuffer buffer = decompress(bytes, offset, length);
+		if (buffer.remaining() > max) {
+			throw new MalformedNBTException("Decompressed data is larger than allowed (" + max + " byte(s))");
+		}
+		return buffer;
+	}
+
+	/**
+	 * Compress data.
+	 *
+	 * @param bytes Source bytes.
+	 * @param offset Start offset.
+	 * @param length Byte count.
+	 * @return the compressed data.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public byte[] compress(byte[] bytes, int offset, int length) throws IOException;
+}
@@ -0,0 +1,92 @@
+package net.steelphoenix.nbtlib;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The known compression formats.
+ * Built-in formats reuse pooled inflaters and deflaters.
+ *
+ * @author SteelPhoenix
+ */
+public class NBTCompressions {
+
+	/**
+	 * GZIP, used by Minecraft for most files
+	 */
+	public static final NBTCompression GZIP = BuiltinCompression.GZIP;
+	/**
+	 * Zlib, used by Minecraft for region file chunks
+	 */
+	public static final NBTCompression ZLIB = BuiltinCompression.ZLIB;
+	/**
+	 * Uncompressed
+	 */
+	public static final NBTCompression NONE = BuiltinCompression.NONE;
+	// Checked in order, later registrations first
+	private static final List<NBTCompression> FORMATS = new CopyOnWriteArrayList<>(new NBTCompression[] { GZIP, ZLIB, NONE });
+
+	private NBTCompressions() {
+		// Nothing
+	}
+
+	/**
+	 * Register a format for detection.
+	 * Formats registered later are checked first.
+	 *
+	 * @param compression Target format.
+	 */
+	public static void register(NBTCompression compression) {
+		// Preconditions
+		if (compression == null) {
+			throw new NullPointerException("Compression cannot be null");
+		}
+
+		FORMATS.add(0, compression);
+	}
+
+	/**
+	 * Detect the format of data.
+	 *
+	 * @param bytes Source bytes.
+	 * @param offset Start offset.
+	 * @param length Byte count.
+	 * @return the format or null if no known format matches.
+	 */
+	public static NBTCompression detect(byte[] bytes, int offset, int length) {
+		// Preconditions
+		if (bytes == null) {
+			throw new NullPointerException("Bytes cannot be null");
+		}
+		if (offset < 0 || length < 0 || offset > bytes.length - length) {
+			throw new IndexOutOfBoundsException("Invalid range for array of size " + bytes.length + ": [" + offset + ", " + ((long) offset + length) + ")");
+		}
+
+		for (NBTCompression compression : FORMATS) {
+			if (compression.matches(bytes, offset, length)) {
+				return compression;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get a format from name.
+	 *
+	 * @param name Target name.
+	 * @return the format or null if no format with the given name is known.
+	 */
+	public static NBTCompression fromName(String name) {
+		// Preconditions
+		if (name == null) {
+			throw new NullPointerException("Name cannot be null");
+		}
+
+		for (NBTCompression compression : FORMATS) {
+			if (compression.getName().equals(name)) {
+				return compression;
+			}
+		}
+		return null;
+	}
+}
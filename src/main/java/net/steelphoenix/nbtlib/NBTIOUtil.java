@@ -0,0 +1,531 @@
+package net.steelphoenix.nbtlib;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utilities for binary NBT input and output.
+ *
+ * @author SteelPhoenix
+ */
+class NBTIOUtil {
+
+	// Arrays are decoded and encoded in chunks of at most this many bytes
+	private static final int CHUNK_SIZE = 8192;
+	// Strings and array chunks are decoded and encoded using per thread buffers that grow as needed
+	// Buffers are only kept up to this size so a single long string does not stay pinned to a pooled thread
+	private static final int SCRATCH_LIMIT = 16384;
+	private static final ThreadLocal<byte[]> BYTE_SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+	private static final ThreadLocal<char[]> CHAR_SCRATCH = ThreadLocal.withInitial(() -> new char[256]);
+
+	private NBTIOUtil() {
+		// Nothing
+	}
+
+	/**
+	 * Read a byte array from a data input.
+	 *
+	 * @param input Target input.
+	 * @param length Array length.
+	 * @return the read array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	static byte[] readByteArray(DataInput input, int length) throws IOException {
+		// Preconditions
+		if (input == null) {
+			throw new NullPointerException("Input cannot be null");
+		}
+		if (length < 0) {
+			throw new IllegalArgumentException("Length cannot be negative");
+		}
+
+		// Reject bogus lengths before allocating
+		if (input instanceof ByteBufferDataInput) {
+			((ByteBufferDataInput) input).ensureRemaining(1L * length);
+		}
+
+		byte[] array = new byte[length];
+		input.readFully(array);
+		return array;
+	}
+
+	/**
+	 * Read an int array from a data input.
+	 *
+	 * @param input Target input.
+	 * @param length Array length.
+	 * @return the read array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	static int[] readIntArray(DataInput input, int length) throws IOException {
+		// Preconditions
+		if (input == null) {
+			throw new NullPointerException("Input cannot be null");
+		}
+		if (length < 0) {
+			throw new IllegalArgumentException("Length cannot be negative");
+		}
+
+		// Reject bogus lengths before allocating
+		if (input instanceof ByteBufferDataInput) {
+			((ByteBufferDataInput) input).ensureRemaining(4L * length);
+		}
+
+		int[] array = new int[length];
+
+		// Buffers can be decoded in place
+		if (input instanceof ByteBufferDataInput) {
+			((ByteBufferDataInput) input).readFully(array);
+			return array;
+		}
+
+		// Overflow conscious
+		byte[] chunk = byteScratch((int) Math.min(CHUNK_SIZE, length * 4L));
+		int i = 0;
+		while (i < length) {
+			int count = Math.min(chunk.length / 4, length - i);
+			input.readFully(chunk, 0, count * 4);
+			for (int j = 0; j < count * 4; j += 4) {
+				array[i++] = getInt(chunk, j);
+			}
+		}
+		return array;
+	}
+
+	/**
+	 * Read a long array from a data input.
+	 *
+	 * @param input Target input.
+	 * @param length Array length.
+	 * @return the read array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	static long[] readLongArray(DataInput input, int length) throws IOException {
+		// Preconditions
+		if (input == null) {
+			throw new NullPointerException("Input cannot be null");
+		}
+		if (length < 0) {
+			throw new IllegalArgumentException("Length cannot be negative");
+		}
+
+		// Reject bogus lengths before allocating
+		if (input instanceof ByteBufferDataInput) {
+			((ByteBufferDataInput) input).ensureRemaining(8L * length);
+		}
+
+		long[] array = new long[length];
+
+		// Buffers can be decoded in place
+		if (input instanceof ByteBufferDataInput) {
+			((ByteBufferDataInput) input).readFully(array);
+			return array;
+		}
+
+		// Overflow conscious
+		byte[] chunk = byteScratch((int) Math.min(CHUNK_SIZE, length * 8L));
+		int i = 0;
+		while (i < length) {
+			int count = Math.min(chunk.length / 8, length - i);
+			input.readFully(chunk, 0, count * 8);
+			for (int j = 0; j < count * 8; j += 8) {
+				array[i++] = getLong(chunk, j);
+			}
+		}
+		return array;
+	}
+
+	/**
+	 * Write an int array to a data output.
+	 * Note that this does not write the array length.
+	 *
+	 * @param output Target output.
+	 * @param array Target array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	static void writeIntArray(DataOutput output, int[] array) throws IOException {
+		// Preconditions
+		if (output == null) {
+			throw new NullPointerException("Output cannot be null");
+		}
+		if (array == null) {
+			throw new NullPointerException("Array cannot be null");
+		}
+
+		// Buffers can be encoded in place
+		if (output instanceof ByteBufferDataOutput) {
+			((ByteBufferDataOutput) output).write(array);
+			return;
+		}
+
+		byte[] chunk = byteScratch((int) Math.min(CHUNK_SIZE, array.length * 4L));
+		int i = 0;
+		while (i < array.length) {
+			int count = Math.min(chunk.length / 4, array.length - i);
+			for (int j = 0; j < count * 4; j += 4) {
+				putInt(chunk, j, array[i++]);
+			}
+			output.write(chunk, 0, count * 4);
+		}
+	}
+
+	/**
+	 * Write a long array to a data output.
+	 * Note that this does not write the array length.
+	 *
+	 * @param output Target output.
+	 * @param array Target array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	static void writeLongArray(DataOutput output, long[] array) throws IOException {
+		// Preconditions
+		if (output == null) {
+			throw new NullPointerException("Output cannot be null");
+		}
+		if (array == null) {
+			throw new NullPointerException("Array cannot be null");
+		}
+
+		// Buffers can be encoded in place
+		if (output instanceof ByteBufferDataOutput) {
+			((ByteBufferDataOutput) output).write(array);
+			return;
+		}
+
+		byte[] chunk = byteScratch((int) Math.min(CHUNK_SIZE, array.length * 8L));
+		int i = 0;
+		while (i < array.length) {
+			int count = Math.min(chunk.length / 8, array.length - i);
+			for (int j = 0; j < count * 8; j += 8) {
+				putLong(chunk, j, array[i++]);
+			}
+			output.write(chunk, 0, count * 8);
+		}
+	}
+
+	/**
+	 * Skip a given amount of bytes in a data input.
+	 *
+	 * @param input Target input.
+	 * @param count Byte count.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws java.io.EOFException if the end of the input is reached first.
+	 */
+	static void skipBytes(DataInput input, long count) throws IOException {
+		// Preconditions
+		if (input == null) {
+			throw new NullPointerException("Input cannot be null");
+		}
+		if (count < 0L) {
+			throw new IllegalArgumentException("Count cannot be negative");
+		}
+
+		while (count > 0L) {
+			int skipped = input.skipBytes((int) Math.min(count, Integer.MAX_VALUE));
+
+			// Inputs may skip fewer bytes for any reason so we probe for the end with a read
+			if (skipped <= 0) {
+				input.readByte();
+				skipped = 1;
+			}
+			count -= skipped;
+		}
+	}
+
+	/**
+	 * Read a modified UTF-8 string from a data input.
+	 *
+	 * @param input Target input.
+	 * @return the read string.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	static String readUTF(DataInput input) throws IOException {
+		return readUTF(input, null);
+	}
+
+	/**
+	 * Read a modified UTF-8 string from a data input.
+	 *
+	 * @param input Target input.
+	 * @param table Table to deduplicate the string with or null to not deduplicate.
+	 * @return the read string.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	static String readUTF(DataInput input, NBTStringTable table) throws IOException {
+		// Preconditions
+		if (input == null) {
+			throw new NullPointerException("Input cannot be null");
+		}
+
+		// Buffers can be decoded without copying
+		if (input instanceof ByteBufferDataInput) {
+			return ((ByteBufferDataInput) input).readUTF(table);
+		}
+
+		int length = input.readUnsignedShort();
+		byte[] bytes = byteScratch(length);
+		input.readFully(bytes, 0, length);
+		return table == null ? decodeUTF(bytes, 0, length) : table.get(bytes, 0, length);
+	}
+
+	/**
+	 * Write a modified UTF-8 string to a data output.
+	 * The output is identical to {@link DataOutput#writeUTF(String)}.
+	 *
+	 * @param output Target output.
+	 * @param string Target string.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	static void writeUTF(DataOutput output, String string) throws IOException {
+		// Preconditions
+		if (output == null) {
+			throw new NullPointerException("Output cannot be null");
+		}
+		if (string == null) {
+			throw new NullPointerException("String cannot be null");
+		}
+
+		// Buffers are encoded into directly
+		if (output instanceof ByteBufferDataOutput) {
+			output.writeUTF(string);
+			return;
+		}
+
+		// Every character takes at least one byte
+		int length = string.length();
+		if (length > 0xFFFF) {
+			throw new UTFDataFormatException("Encoded string too long: at least " + length + " bytes");
+		}
+
+		// Encode in a single pass and fill in the length afterwards
+		// Long strings are measured first so the buffer is not sized for the worst case
+		byte[] bytes = byteScratch(2 + (3 * length <= SCRATCH_LIMIT ? 3 * length : getUTFLength(string)));
+		int index = 2;
+		int i = 0;
+
+		// ASCII without NUL encodes as is
+		for (; i < length; i++) {
+			char c = string.charAt(i);
+			if (c == 0 || c > 0x7F) {
+				break;
+			}
+			bytes[index++] = (byte) c;
+		}
+		for (; i < length; i++) {
+			char c = string.charAt(i);
+			if (c >= 0x0001 && c <= 0x007F) {
+				bytes[index++] = (byte) c;
+			}
+			else if (c <= 0x07FF) {
+				bytes[index++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+				bytes[index++] = (byte) (0x80 | (c & 0x3F));
+			}
+			else {
+				bytes[index++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+				bytes[index++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				bytes[index++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+
+		int count = index - 2;
+		if (count > 0xFFFF) {
+			throw new UTFDataFormatException("Encoded string too long: " + count + " bytes");
+		}
+		bytes[0] = (byte) (count >>> 8);
+		bytes[1] = (byte) count;
+		output.write(bytes, 0, index);
+	}
+
+	/**
+	 * Get the modified UTF-8 encoded length of a string.
+	 * Note that this excludes the length prefix.
+	 *
+	 * @param string Target string.
+	 * @return the encoded length.
+	 */
+	static int getUTFLength(String string) {
+		// Preconditions
+		if (string == null) {
+			throw new NullPointerException("String cannot be null");
+		}
+
+		int length = string.length();
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c == 0 || c > 0x7F) {
+				length += c <= 0x07FF ? 1 : 2;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Decode modified UTF-8 bytes.
+	 *
+	 * @param bytes Source bytes.
+	 * @param offset Start offset.
+	 * @param length Byte count.
+	 * @return the decoded string.
+	 * @throws UTFDataFormatException if the bytes are not valid modified UTF-8.
+	 */
+	static String decodeUTF(byte[] bytes, int offset, int length) throws UTFDataFormatException {
+		int end = offset + length;
+		int i = offset;
+
+		// ASCII decodes as is
+		while (i < end && bytes[i] >= 0) {
+			i++;
+		}
+		if (i == end) {
+			return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+		}
+
+		char[] chars = charScratch(length);
+		int count = 0;
+		for (int j = offset; j < i; j++) {
+			chars[count++] = (char) bytes[j];
+		}
+		while (i < end) {
+			int a = bytes[i] & 0xFF;
+			switch (a >> 4) {
+				case 0:
+				case 1:
+				case 2:
+				case 3:
+				case 4:
+				case 5:
+				case 6:
+				case 7:
+					// 0xxxxxxx
+					chars[count++] = (char) a;
+					i++;
+					break;
+				case 12:
+				case 13: {
+					// 110xxxxx 10xxxxxx
+					if (i + 2 > end) {
+						throw new UTFDataFormatException("Partial character at end of input");
+					}
+					int b = bytes[i + 1];
+					if ((b & 0xC0) != 0x80) {
+						throw new UTFDataFormatException("Malformed input around byte " + (i - offset));
+					}
+					chars[count++] = (char) (((a & 0x1F) << 6) | (b & 0x3F));
+					i += 2;
+					break;
+				}
+				case 14: {
+					// 1110xxxx 10xxxxxx 10xxxxxx
+					if (i + 3 > end) {
+						throw new UTFDataFormatException("Partial character at end of input");
+					}
+					int b = bytes[i + 1];
+					int c = bytes[i + 2];
+					if ((b & 0xC0) != 0x80 || (c & 0xC0) != 0x80) {
+						throw new UTFDataFormatException("Malformed input around byte " + (i - offset));
+					}
+					chars[count++] = (char) (((a & 0x0F) << 12) | ((b & 0x3F) << 6) | (c & 0x3F));
+					i += 3;
+					break;
+				}
+				default:
+					throw new UTFDataFormatException("Malformed input around byte " + (i - offset));
+			}
+		}
+		return new String(chars, 0, count);
+	}
+
+	/**
+	 * Get the byte scratch buffer of the current thread.
+	 * Note that the contents are only valid until the next call on the same thread.
+	 * Lengths past the scratch limit get a new array that is not kept.
+	 *
+	 * @param length Minimum length.
+	 * @return the scratch buffer.
+	 */
+	static byte[] byteScratch(int length) {
+		if (length > SCRATCH_LIMIT) {
+			return new byte[length];
+		}
+		byte[] bytes = BYTE_SCRATCH.get();
+		if (bytes.length < length) {
+			bytes = new byte[Math.min(SCRATCH_LIMIT, Math.max(length, bytes.length * 2))];
+			BYTE_SCRATCH.set(bytes);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Get the char scratch buffer of the current thread.
+	 * Note that the contents are only valid until the next call on the same thread.
+	 * Lengths past the scratch limit get a new array that is not kept.
+	 *
+	 * @param length Minimum length.
+	 * @return the scratch buffer.
+	 */
+	private static char[] charScratch(int length) {
+		if (length > SCRATCH_LIMIT) {
+			return new char[length];
+		}
+		char[] chars = CHAR_SCRATCH.get();
+		if (chars.length < length) {
+			chars = new char[Math.min(SCRATCH_LIMIT, Math.max(length, chars.length * 2))];
+			CHAR_SCRATCH.set(chars);
+		}
+		return chars;
+	}
+
+	/**
+	 * Decode a big-endian int.
+	 *
+	 * @param bytes Source bytes.
+	 * @param offset Target offset.
+	 * @return the decoded value.
+	 */
+	private static int getInt(byte[] bytes, int offset) {
+		return (bytes[offset] << 24)
+				| ((bytes[offset + 1] & 0xFF) << 16)
+				| ((bytes[offset + 2] & 0xFF) << 8)
+				| (bytes[offset + 3] & 0xFF);
+	}
+
+	/**
+	 * Decode a big-endian long.
+	 *
+	 * @param bytes Source bytes.
+	 * @param offset Target offset.
+	 * @return the decoded value.
+	 */
+	private static long getLong(byte[] bytes, int offset) {
+		return ((long) getInt(bytes, offset) << 32) | (getInt(bytes, offset + 4) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Encode a big-endian int.
+	 *
+	 * @param bytes Target bytes.
+	 * @param offset Target offset.
+	 * @param value Target value.
+	 */
+	private static void putInt(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte) (value >>> 24);
+		bytes[offset + 1] = (byte) (value >>> 16);
+		bytes[offset + 2] = (byte) (value >>> 8);
+		bytes[offset + 3] = (byte) value;
+	}
+
+	/**
+	 * Encode a big-endian long.
+	 *
+	 * @param bytes Target bytes.
+	 * @param offset Target offset.
+	 * @param value Target value.
+	 */
+	private static void putLong(byte[] bytes, int offset, long value) {
+		putInt(bytes, offset, (int) (value >>> 32));
+		putInt(bytes, offset + 4, (int) value);
+	}
+}
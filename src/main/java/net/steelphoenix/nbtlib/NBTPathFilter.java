@@ -0,0 +1,233 @@
+package net.steelphoenix.nbtlib;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.steelphoenix.nbtlib.tag.NBTTagCompound;
+import net.steelphoenix.nbtlib.tag.NBTTagList;
+
+/**
+ * A filter selecting which parts of a compound tag get read.
+ * Everything that is not on an included path is skipped without being decoded.
+ * Paths pass through lists, so {@code Level.Sections.Y} selects {@code Y} in every element of {@code Sections}.
+ *
+ * @author SteelPhoenix
+ */
+public class NBTPathFilter {
+
+	private final Node root = new Node();
+
+	/**
+	 * Include a path.
+	 * Keys are separated by periods.
+	 *
+	 * @param path Target path.
+	 */
+	public void include(String path) {
+		// Preconditions
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+
+		include(Arrays.asList(path.split("\\.", -1)));
+	}
+
+	/**
+	 * Include a path.
+	 *
+	 * @param keys Target keys.
+	 */
+	public void include(List<String> keys) {
+		// Preconditions
+		if (keys == null) {
+			throw new NullPointerException("Keys cannot be null");
+		}
+		if (keys.isEmpty()) {
+			throw new IllegalArgumentException("Keys cannot be empty");
+		}
+
+		Node node = root;
+		for (String key : keys) {
+			if (key == null) {
+				throw new NullPointerException("Key cannot be null");
+			}
+
+			// Already included entirely
+			if (node.full) {
+				return;
+			}
+			node = node.children.computeIfAbsent(key, k -> new Node());
+		}
+		node.full = true;
+		node.children.clear();
+	}
+
+	/**
+	 * Read a compound tag using this filter.
+	 *
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @param limiter Size limiter.
+	 * @return the read tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	NBTTagCompound read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		return readCompound(root, input, depth, limiter);
+	}
+
+	/**
+	 * Read a tag.
+	 *
+	 * @param node Filter node.
+	 * @param type Tag type.
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @param limiter Size limiter.
+	 * @return the read tag or null if the tag was skipped.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static INBTTag<?> read(Node node, NBTTagType type, DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		if (node.full) {
+			return type.read(input, depth, limiter);
+		}
+		if (type == NBTTagType.COMPOUND) {
+			return readCompound(node, input, depth, limiter);
+		}
+		if (type == NBTTagType.LIST) {
+			return readList(node, input, depth, limiter);
+		}
+
+		// The path continues but this tag has no children
+		type.skip(input, depth);
+		return null;
+	}
+
+	/**
+	 * Read a compound tag.
+	 *
+	 * @param node Filter node.
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @param limiter Size limiter.
+	 * @return the read tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static NBTTagCompound readCompound(Node node, DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		// Preconditions
+		if (input == null) {
+			throw new NullPointerException("Input cannot be null");
+		}
+		if (limiter == null) {
+			throw new NullPointerException("Limiter cannot be null");
+		}
+		if (depth < 0) {
+			throw new IllegalArgumentException("Depth cannot be negative");
+		}
+		if (depth > 512) {
+			throw new MalformedNBTException("Depth exceeds max depth: " + depth);
+		}
+
+		limiter.addBytesRead(48L);
+		Map<String, INBTTag<?>> map = new LinkedHashMap<>();
+		while (true) {
+			byte id = input.readByte();
+			NBTTagType type = NBTTagType.fromId(id);
+			if (type == null) {
+				throw new MalformedNBTException("Unknown tag type: " + id);
+			}
+
+			// Last entry
+			if (type == NBTTagType.END) {
+				break;
+			}
+
+			String key = NBTIOUtil.readUTF(input);
+			Node child = node.children.get(key);
+
+			// Not included
+			if (child == null) {
+				type.skip(input, depth + 1);
+				continue;
+			}
+
+			INBTTag<?> tag = read(child, type, input, depth + 1, limiter);
+			if (tag == null) {
+				continue;
+			}
+			limiter.addBytesRead(28L + 2L * key.length());
+			if (map.put(key, tag) != null) {
+				limiter.addBytesRead(36L);
+			}
+		}
+		NBTTagCompound tag = new NBTTagCompound();
+		tag.setValue0(map);
+		return tag;
+	}
+
+	/**
+	 * Read a list tag.
+	 * Only lists of compound or list tags are read, other lists are skipped.
+	 *
+	 * @param node Filter node.
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @param limiter Size limiter.
+	 * @return the read tag or null if the tag was skipped.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static NBTTagList readList(Node node, DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		if (depth > 512) {
+			throw new MalformedNBTException("Depth exceeds max depth: " + depth);
+		}
+
+		byte id = input.readByte();
+		int size = input.readInt();
+		if (size < 0) {
+			throw new MalformedNBTException("Negative list size");
+		}
+		NBTTagType type = NBTTagType.fromId(id);
+
+		// Empty list may have an invalid type id or be of type END
+		if ((type == null || type == NBTTagType.END) && size > 0) {
+			throw new MalformedNBTException("Invalid list type: " + id);
+		}
+
+		// The path continues but the elements have no children
+		if (type != NBTTagType.COMPOUND && type != NBTTagType.LIST) {
+			for (int i = 0; i < size; i++) {
+				type.skip(input, depth + 1);
+			}
+			return null;
+		}
+
+		limiter.addBytesRead(37L + 32L * size);
+		List<INBTTag<?>> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			INBTTag<?> element = read(node, type, input, depth + 1, limiter);
+
+			// Lists of lists keep their elements even if an element got skipped
+			list.add(element == null ? new NBTTagList() : element);
+		}
+		NBTTagList tag = new NBTTagList();
+		tag.setElementType(type);
+		tag.setValue0(list);
+		return tag;
+	}
+
+	/**
+	 * A filter node.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Node {
+
+		private final Map<String, Node> children = new HashMap<>();
+		private boolean full = false;
+	}
+}
@@ -0,0 +1,97 @@
+package net.steelphoenix.nbtlib;
+
+/**
+ * Options for reading binary NBT data.
+ * Note that options should not be changed while a read using them is in progress.
+ *
+ * @author SteelPhoenix
+ */
+public class NBTReadOptions {
+
+	public static final NBTReadOptions DEFAULT = new DefaultReadOptions();
+	private NBTStringTable stringTable = null;
+	private boolean lazy = false;
+	private boolean sharedNumbers = false;
+
+	/**
+	 * Get the table used for canonical keys and string values.
+	 *
+	 * @return the string table or null if strings are not deduplicated.
+	 */
+	public NBTStringTable getStringTable() {
+		return stringTable;
+	}
+
+	/**
+	 * Set the table used for canonical keys and string values.
+	 *
+	 * @param stringTable Target table or null to not deduplicate strings.
+	 */
+	public void setStringTable(NBTStringTable stringTable) {
+		this.stringTable = stringTable;
+	}
+
+	/**
+	 * Get if compound values are decoded lazily.
+	 * Note that this only applies when reading from a byte buffer.
+	 *
+	 * @return if reading is lazy.
+	 */
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	/**
+	 * Set if compound values are decoded lazily.
+	 * Note that this only applies when reading from a byte buffer.
+	 * Note that replacing or removing a value that has not been decoded yet returns null instead of the previous value.
+	 *
+	 * @param lazy If reading is lazy.
+	 */
+	public void setLazy(boolean lazy) {
+		this.lazy = lazy;
+	}
+
+	/**
+	 * Get if byte, short, int and long tags are read as shared immutable instances.
+	 * Note that changing the value of such a tag throws an exception, copy it first.
+	 *
+	 * @return if numeric tags are shared.
+	 */
+	public boolean isSharedNumbers() {
+		return sharedNumbers;
+	}
+
+	/**
+	 * Set if byte, short, int and long tags are read as shared immutable instances.
+	 * Note that changing the value of such a tag throws an exception, copy it first.
+	 *
+	 * @param sharedNumbers If numeric tags are shared.
+	 */
+	public void setSharedNumbers(boolean sharedNumbers) {
+		this.sharedNumbers = sharedNumbers;
+	}
+
+	/**
+	 * The default options.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class DefaultReadOptions extends NBTReadOptions {
+
+		@Override
+		public void setStringTable(NBTStringTable stringTable) {
+			throw new UnsupportedOperationException("Cannot change the default options");
+		}
+
+		@Override
+		public void setLazy(boolean lazy) {
+			throw new UnsupportedOperationException("Cannot change the default options");
+		}
+
+		@Override
+		public void setSharedNumbers(boolean sharedNumbers) {
+			throw new UnsupportedOperationException("Cannot change the default options");
+		}
+	}
+}
@@ -39,6 +39,21 @@ public class NBTSizeLimiter {
 		}
 	}
 
+	/**
+	 * Get the largest binary size a named root tag can have and still be accepted by this limiter.
+	 * Every byte of binary data is counted as at least two thirds of a byte, except for the root name.
+	 * This is used to stop decompressing data that could never be read.
+	 * Subclasses that count bytes differently should override this as well.
+	 *
+	 * @return the maximum binary size.
+	 */
+	public long getMaxBinarySize() {
+		// Root type, name length and the longest name in modified UTF-8
+		long root = 3L + 3L * 0xFFFF;
+		long remaining = Math.max(0L, max - count);
+		return remaining > (Long.MAX_VALUE - root) / 3L * 2L ? Long.MAX_VALUE : root + remaining / 2L * 3L + remaining % 2L;
+	}
+
 	/**
 	 * An unlimited size limiter.
 	 *
@@ -54,5 +69,10 @@ public class NBTSizeLimiter {
 		public void addBytesRead(long read) {
 			// Nothing
 		}
+
+		@Override
+		public long getMaxBinarySize() {
+			return Long.MAX_VALUE;
+		}
 	}
 }
@@ -0,0 +1,129 @@
+package net.steelphoenix.nbtlib;
+
+import java.io.UTFDataFormatException;
+
+/**
+ * A bounded table of canonical strings for decoding.
+ * Strings are looked up by their encoded modified UTF-8 bytes so no string is created for strings already in the table.
+ * The table is a fixed size cache where a new string replaces the string occupying its slot.
+ * Instances are thread-safe and can be shared between concurrent reads.
+ *
+ * @author SteelPhoenix
+ */
+public class NBTStringTable {
+
+	private final Entry[] entries;
+	private final int mask;
+	private final int maxLength;
+
+	/**
+	 * Create a table with 4096 slots for strings of up to 64 encoded bytes.
+	 */
+	public NBTStringTable() {
+		this(4096, 64);
+	}
+
+	/**
+	 * Create a table.
+	 *
+	 * @param capacity Slot count, rounded up to a power of two.
+	 * @param maxLength Maximum encoded length of strings to keep.
+	 */
+	public NBTStringTable(int capacity, int maxLength) {
+		// Preconditions
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Capacity must be in range [1, 2^30]: " + capacity);
+		}
+		if (maxLength < 0) {
+			throw new IllegalArgumentException("Maximum length cannot be negative");
+		}
+
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		this.entries = new Entry[size];
+		this.mask = size - 1;
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * Get the canonical string for modified UTF-8 encoded bytes.
+	 *
+	 * @param bytes Source bytes.
+	 * @param offset Start offset.
+	 * @param length Byte count.
+	 * @return the string.
+	 * @throws UTFDataFormatException if the bytes are not valid modified UTF-8.
+	 */
+	public String get(byte[] bytes, int offset, int length) throws UTFDataFormatException {
+		// Preconditions
+		if (bytes == null) {
+			throw new NullPointerException("Bytes cannot be null");
+		}
+		if (offset < 0 || length < 0 || offset > bytes.length - length) {
+			throw new IndexOutOfBoundsException("Invalid range for array of size " + bytes.length + ": [" + offset + ", " + ((long) offset + length) + ")");
+		}
+
+		// Too long to be worth keeping
+		if (length > maxLength) {
+			return NBTIOUtil.decodeUTF(bytes, offset, length);
+		}
+
+		int hash = 1;
+		for (int i = offset; i < offset + length; i++) {
+			hash = 31 * hash + bytes[i];
+		}
+		int index = (hash ^ (hash >>> 16)) & mask;
+
+		// Note that the entry fields are final so reading a racy slot is safe
+		Entry entry = entries[index];
+		if (entry != null && entry.hash == hash && entry.matches(bytes, offset, length)) {
+			return entry.value;
+		}
+
+		String value = NBTIOUtil.decodeUTF(bytes, offset, length);
+		byte[] copy = new byte[length];
+		System.arraycopy(bytes, offset, copy, 0, length);
+		entries[index] = new Entry(hash, copy, value);
+		return value;
+	}
+
+	/**
+	 * A table entry.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Entry {
+
+		private final int hash;
+		private final byte[] bytes;
+		private final String value;
+
+		private Entry(int hash, byte[] bytes, String value) {
+			this.hash = hash;
+			this.bytes = bytes;
+			this.value = value;
+		}
+
+		/**
+		 * Check if the entry matches encoded bytes.
+		 *
+		 * @param bytes Source bytes.
+		 * @param offset Start offset.
+		 * @param length Byte count.
+		 * @return if the bytes match.
+		 */
+		private boolean matches(byte[] bytes, int offset, int length) {
+			if (this.bytes.length != length) {
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				if (this.bytes[i] != bytes[offset + i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -3,6 +3,7 @@ package net.steelphoenix.nbtlib;
 import java.io.DataInput;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,7 +35,7 @@ public enum NBTTagType {
 	END ((byte) 0, "TAG_End") {
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -42,6 +43,9 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
@@ -49,6 +53,39 @@ public enum NBTTagType {
 			limiter.addBytesRead(8L);
 			return NBTTagEnd.getInstance();
 		}
+
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			// Nothing
+		}
+
+		@Override
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			limiter.addBytesRead(8L);
+			return NBTVisitor.Result.CONTINUE;
+		}
 	},
 
 
@@ -58,7 +95,7 @@ public enum NBTTagType {
 	BYTE ((byte) 1, "TAG_Byte") {
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -66,25 +103,33 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
 
 			limiter.addBytesRead(9L);
-			NBTTagByte tag = new NBTTagByte();
-			tag.setValue0(Byte.valueOf(input.readByte()));
-			return tag;
+			byte value = input.readByte();
+			return options.isSharedNumbers() ? NBTTagByte.valueOf(value) : new NBTTagByte(value);
 		}
-	},
 
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
 
-	/**
-	 * TAG_Short
-	 */
-	SHORT ((byte) 2, "TAG_Short") {
+			NBTIOUtil.skipBytes(input, 1L);
+		}
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -92,25 +137,26 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
 
-			limiter.addBytesRead(10L);
-			NBTTagShort tag = new NBTTagShort();
-			tag.setValue0(Short.valueOf(input.readShort()));
-			return tag;
+			limiter.addBytesRead(9L);
+			return visitor.visitByte(input.readByte());
 		}
 	},
 
 
 	/**
-	 * TAG_Int
+	 * TAG_Short
 	 */
-	INT ((byte) 3, "TAG_Int") {
+	SHORT ((byte) 2, "TAG_Short") {
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -118,25 +164,33 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
 
-			limiter.addBytesRead(12L);
-			NBTTagInt tag = new NBTTagInt();
-			tag.setValue0(Integer.valueOf(input.readInt()));
-			return tag;
+			limiter.addBytesRead(10L);
+			short value = input.readShort();
+			return options.isSharedNumbers() ? NBTTagShort.valueOf(value) : new NBTTagShort(value);
 		}
-	},
 
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
 
-	/**
-	 * TAG_Long
-	 */
-	LONG ((byte) 4, "TAG_Long") {
+			NBTIOUtil.skipBytes(input, 2L);
+		}
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -144,25 +198,26 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
 
-			limiter.addBytesRead(16L);
-			NBTTagLong tag = new NBTTagLong();
-			tag.setValue0(Long.valueOf(input.readLong()));
-			return tag;
+			limiter.addBytesRead(10L);
+			return visitor.visitShort(input.readShort());
 		}
 	},
 
 
 	/**
-	 * TAG_Float
+	 * TAG_Int
 	 */
-	FLOAT ((byte) 5, "TAG_Float") {
+	INT ((byte) 3, "TAG_Int") {
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -170,24 +225,33 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
 
 			limiter.addBytesRead(12L);
-			NBTTagFloat tag = new NBTTagFloat();
-			tag.setValue0(Float.valueOf(input.readFloat()));
-			return tag;
+			int value = input.readInt();
+			return options.isSharedNumbers() ? NBTTagInt.valueOf(value) : new NBTTagInt(value);
 		}
-	},
 
-	/**
-	 * TAG_Double
-	 */
-	DOUBLE ((byte) 6, "TAG_Double") {
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			NBTIOUtil.skipBytes(input, 4L);
+		}
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -195,24 +259,26 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
 
-			limiter.addBytesRead(16L);
-			NBTTagDouble tag = new NBTTagDouble();
-			tag.setValue0(Double.valueOf(input.readDouble()));
-			return tag;
+			limiter.addBytesRead(12L);
+			return visitor.visitInt(input.readInt());
 		}
 	},
 
+
 	/**
-	 * TAG_Byte_Array
+	 * TAG_Long
 	 */
-	BYTE_ARRAY ((byte) 7, "TAG_Byte_Array") {
+	LONG ((byte) 4, "TAG_Long") {
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -220,33 +286,33 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
 
-			limiter.addBytesRead(24L);
-			int len = input.readInt();
-			if (len < 0) {
-				throw new MalformedNBTException("Negative array size");
+			limiter.addBytesRead(16L);
+			long value = input.readLong();
+			return options.isSharedNumbers() ? NBTTagLong.valueOf(value) : new NBTTagLong(value);
+		}
+
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
 			}
-			limiter.addBytesRead(1L * len);
-			List<NBTTagByte> list = new ArrayList<>(len);
-			for (int i = 0; i < len; i++) {
-				list.add(new NBTTagByte(input.readByte()));
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
 			}
-			NBTTagByteArray tag = new NBTTagByteArray();
-			tag.setValue0(list);
-			return tag;
-		}
-	},
 
-	/**
-	 * TAG_String
-	 */
-	STRING ((byte) 8, "TAG_String") {
+			NBTIOUtil.skipBytes(input, 8L);
+		}
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -254,26 +320,26 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
 
-			limiter.addBytesRead(36L);
-			String string = input.readUTF();
-			limiter.addBytesRead(2L * string.length());
-			NBTTagString tag = new NBTTagString();
-			tag.setValue0(string);
-			return tag;
+			limiter.addBytesRead(16L);
+			return visitor.visitLong(input.readLong());
 		}
 	},
 
+
 	/**
-	 * TAG_List
+	 * TAG_Float
 	 */
-	LIST ((byte) 9, "TAG_List") {
+	FLOAT ((byte) 5, "TAG_Float") {
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -281,45 +347,58 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
-			if (depth > 512) {
-				throw new MalformedNBTException("Depth exceeds max depth: " + depth);
-			}
 
-			limiter.addBytesRead(37L);
-			byte id = input.readByte();
-			int size = input.readInt();
-			if (size < 0) {
-				throw new MalformedNBTException("Negative list size");
-			}
-			limiter.addBytesRead(32L * size);
-			NBTTagType type = NBTTagType.fromId(id);
+			limiter.addBytesRead(12L);
+			return new NBTTagFloat(input.readFloat());
+		}
 
-			// Empty list may have an invalid type id or be of type END
-			if ((type == null || type == NBTTagType.END) && size > 0) {
-				throw new MalformedNBTException("Invalid list type: " + id);
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
 			}
 
-			List<INBTTag<?>> list = new ArrayList<>(size);
-			for (int i = 0; i < size; i++) {
-				list.add(type.read(input, depth + 1, limiter));
+			NBTIOUtil.skipBytes(input, 4L);
+		}
+
+		@Override
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
 			}
-			NBTTagList tag = new NBTTagList();
-			tag.setElementType(type);
-			tag.setValue0(list);
-			return tag;
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			limiter.addBytesRead(12L);
+			return visitor.visitFloat(input.readFloat());
 		}
 	},
 
 	/**
-	 * TAG_Compound
+	 * TAG_Double
 	 */
-	COMPOUND ((byte) 10, "TAG_Compound") {
+	DOUBLE ((byte) 6, "TAG_Double") {
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -327,48 +406,32 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
-			if (depth > 512) {
-				throw new MalformedNBTException("Depth exceeds max depth: " + depth);
-			}
 
-			limiter.addBytesRead(48L);
-			Map<String, INBTTag<?>> map = new LinkedHashMap<>();
-			while (true) {
-				byte id = input.readByte();
-				NBTTagType type = NBTTagType.fromId(id);
-				if (type == null) {
-					throw new MalformedNBTException("Unknown tag type: " + id);
-				}
-
-				// Last entry
-				if (type == NBTTagType.END) {
-					break;
-				}
-
-				String key = input.readUTF();
-				limiter.addBytesRead(28L + 2L * key.length());
-				INBTTag<?> tag = type.read(input, depth + 1, limiter);
-				if (map.put(key, tag) != null) {
-					limiter.addBytesRead(36L);
-				}
-			}
-			NBTTagCompound tag = new NBTTagCompound();
-			tag.setValue0(map);
-			return tag;
+			limiter.addBytesRead(16L);
+			return new NBTTagDouble(input.readDouble());
 		}
-	},
 
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
 
-	/**
-	 * TAG_Int_Array
-	 */
-	INT_ARRAY ((byte) 11, "TAG_Int_Array") {
+			NBTIOUtil.skipBytes(input, 8L);
+		}
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -376,33 +439,25 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
 
-			limiter.addBytesRead(24L);
-			int len = input.readInt();
-			if (len < 0) {
-				throw new MalformedNBTException("Negative array size");
-			}
-			limiter.addBytesRead(4L * len);
-			List<NBTTagInt> list = new ArrayList<>(len);
-			for (int i = 0; i < len; i++) {
-				list.add(new NBTTagInt(input.readInt()));
-			}
-			NBTTagIntArray tag = new NBTTagIntArray();
-			tag.setValue0(list);
-			return tag;
+			limiter.addBytesRead(16L);
+			return visitor.visitDouble(input.readDouble());
 		}
 	},
 
 	/**
-	 * TAG_Long_Array
+	 * TAG_Byte_Array
 	 */
-	LONG_ARRAY ((byte) 12, "TAG_Long_Array") {
+	BYTE_ARRAY ((byte) 7, "TAG_Byte_Array") {
 
 		@Override
-		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
 			// Preconditions
 			if (input == null) {
 				throw new NullPointerException("Input cannot be null");
@@ -410,29 +465,585 @@ public enum NBTTagType {
 			if (limiter == null) {
 				throw new NullPointerException("Limiter cannot be null");
 			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
 			if (depth < 0) {
 				throw new IllegalArgumentException("Depth cannot be negative");
 			}
 
-			// No clue why but this is what Minecraft does
 			limiter.addBytesRead(24L);
 			int len = input.readInt();
 			if (len < 0) {
 				throw new MalformedNBTException("Negative array size");
 			}
-			limiter.addBytesRead(8L * len);
-			List<NBTTagLong> list = new ArrayList<>(len);
-			for (int i = 0; i < len; i++) {
-				list.add(new NBTTagLong(input.readLong()));
-			}
-			NBTTagLongArray tag = new NBTTagLongArray();
-			tag.setValue0(list);
+			limiter.addBytesRead(1L * len);
+			byte[] array = NBTIOUtil.readByteArray(input, len);
+			NBTTagByteArray tag = new NBTTagByteArray();
+			tag.setArray0(array);
 			return tag;
 		}
-	};
 
-	private final byte id;
-	private final String name;
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			int len = input.readInt();
+			if (len < 0) {
+				throw new MalformedNBTException("Negative array size");
+			}
+			NBTIOUtil.skipBytes(input, 1L * len);
+		}
+
+		@Override
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			limiter.addBytesRead(24L);
+			int len = input.readInt();
+			if (len < 0) {
+				throw new MalformedNBTException("Negative array size");
+			}
+			limiter.addBytesRead(1L * len);
+			return visitor.visitByteArray(NBTIOUtil.readByteArray(input, len));
+		}
+	},
+
+	/**
+	 * TAG_String
+	 */
+	STRING ((byte) 8, "TAG_String") {
+
+		@Override
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			limiter.addBytesRead(36L);
+			String string = NBTIOUtil.readUTF(input, options.getStringTable());
+			limiter.addBytesRead(2L * string.length());
+			return new NBTTagString(string);
+		}
+
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			NBTIOUtil.skipBytes(input, input.readUnsignedShort());
+		}
+
+		@Override
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			limiter.addBytesRead(36L);
+			String string = NBTIOUtil.readUTF(input);
+			limiter.addBytesRead(2L * string.length());
+			return visitor.visitString(string);
+		}
+	},
+
+	/**
+	 * TAG_List
+	 */
+	LIST ((byte) 9, "TAG_List") {
+
+		@Override
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+			if (depth > 512) {
+				throw new MalformedNBTException("Depth exceeds max depth: " + depth);
+			}
+
+			limiter.addBytesRead(37L);
+			byte id = input.readByte();
+			int size = input.readInt();
+			if (size < 0) {
+				throw new MalformedNBTException("Negative list size");
+			}
+			limiter.addBytesRead(32L * size);
+			NBTTagType type = NBTTagType.fromId(id);
+
+			// Empty list may have an invalid type id or be of type END
+			if ((type == null || type == NBTTagType.END) && size > 0) {
+				throw new MalformedNBTException("Invalid list type: " + id);
+			}
+
+			List<INBTTag<?>> list = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				list.add(type.read(input, depth + 1, limiter, options));
+			}
+			NBTTagList tag = new NBTTagList();
+			tag.setElementType(type);
+			tag.setValue0(list);
+			return tag;
+		}
+
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+			if (depth > 512) {
+				throw new MalformedNBTException("Depth exceeds max depth: " + depth);
+			}
+
+			byte id = input.readByte();
+			int size = input.readInt();
+			if (size < 0) {
+				throw new MalformedNBTException("Negative list size");
+			}
+			NBTTagType type = NBTTagType.fromId(id);
+
+			// Empty list may have an invalid type id or be of type END
+			if ((type == null || type == NBTTagType.END) && size > 0) {
+				throw new MalformedNBTException("Invalid list type: " + id);
+			}
+
+			for (int i = 0; i < size; i++) {
+				type.skip(input, depth + 1);
+			}
+		}
+
+		@Override
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+			if (depth > 512) {
+				throw new MalformedNBTException("Depth exceeds max depth: " + depth);
+			}
+
+			limiter.addBytesRead(37L);
+			byte id = input.readByte();
+			int size = input.readInt();
+			if (size < 0) {
+				throw new MalformedNBTException("Negative list size");
+			}
+			NBTTagType type = NBTTagType.fromId(id);
+
+			// Empty list may have an invalid type id or be of type END
+			if ((type == null || type == NBTTagType.END) && size > 0) {
+				throw new MalformedNBTException("Invalid list type: " + id);
+			}
+
+			NBTVisitor.Result result = visitor.visitListStart(type == null ? NBTTagType.END : type, size);
+			if (result == NBTVisitor.Result.STOP) {
+				return result;
+			}
+
+			// Skipped list
+			if (result == NBTVisitor.Result.SKIP) {
+				for (int i = 0; i < size; i++) {
+					type.skip(input, depth + 1);
+				}
+				return NBTVisitor.Result.CONTINUE;
+			}
+
+			limiter.addBytesRead(32L * size);
+			for (int i = 0; i < size; i++) {
+				result = type.accept(input, depth + 1, limiter, visitor);
+				if (result == NBTVisitor.Result.STOP) {
+					return result;
+				}
+
+				// Skip remaining elements
+				if (result == NBTVisitor.Result.SKIP) {
+					for (i++; i < size; i++) {
+						type.skip(input, depth + 1);
+					}
+				}
+			}
+			return visitor.visitEnd();
+		}
+	},
+
+	/**
+	 * TAG_Compound
+	 */
+	COMPOUND ((byte) 10, "TAG_Compound") {
+
+		@Override
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+			if (depth > 512) {
+				throw new MalformedNBTException("Depth exceeds max depth: " + depth);
+			}
+
+			limiter.addBytesRead(48L);
+			Map<String, INBTTag<?>> map = new LinkedHashMap<>();
+			while (true) {
+				byte id = input.readByte();
+				NBTTagType type = NBTTagType.fromId(id);
+				if (type == null) {
+					throw new MalformedNBTException("Unknown tag type: " + id);
+				}
+
+				// Last entry
+				if (type == NBTTagType.END) {
+					break;
+				}
+
+				String key = NBTIOUtil.readUTF(input, options.getStringTable());
+				limiter.addBytesRead(28L + 2L * key.length());
+				INBTTag<?> tag = type.read(input, depth + 1, limiter, options);
+				if (map.put(key, tag) != null) {
+					limiter.addBytesRead(36L);
+				}
+			}
+			NBTTagCompound tag = new NBTTagCompound();
+			tag.setValue0(map);
+			return tag;
+		}
+
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+			if (depth > 512) {
+				throw new MalformedNBTException("Depth exceeds max depth: " + depth);
+			}
+
+			while (true) {
+				byte id = input.readByte();
+				NBTTagType type = NBTTagType.fromId(id);
+				if (type == null) {
+					throw new MalformedNBTException("Unknown tag type: " + id);
+				}
+
+				// Last entry
+				if (type == NBTTagType.END) {
+					break;
+				}
+
+				NBTIOUtil.skipBytes(input, input.readUnsignedShort());
+				type.skip(input, depth + 1);
+			}
+		}
+
+		@Override
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+			if (depth > 512) {
+				throw new MalformedNBTException("Depth exceeds max depth: " + depth);
+			}
+
+			limiter.addBytesRead(48L);
+			NBTVisitor.Result result = visitor.visitCompoundStart();
+			if (result == NBTVisitor.Result.STOP) {
+				return result;
+			}
+			if (result == NBTVisitor.Result.SKIP) {
+				skip(input, depth);
+				return NBTVisitor.Result.CONTINUE;
+			}
+
+			while (true) {
+				byte id = input.readByte();
+				NBTTagType type = NBTTagType.fromId(id);
+				if (type == null) {
+					throw new MalformedNBTException("Unknown tag type: " + id);
+				}
+
+				// Last entry
+				if (type == NBTTagType.END) {
+					break;
+				}
+
+				String key = NBTIOUtil.readUTF(input);
+				limiter.addBytesRead(28L + 2L * key.length());
+				result = visitor.visitKey(type, key);
+				if (result == NBTVisitor.Result.STOP) {
+					return result;
+				}
+				if (result == NBTVisitor.Result.SKIP) {
+					type.skip(input, depth + 1);
+					continue;
+				}
+
+				result = type.accept(input, depth + 1, limiter, visitor);
+				if (result == NBTVisitor.Result.STOP) {
+					return result;
+				}
+
+				// Skip remaining entries
+				if (result == NBTVisitor.Result.SKIP) {
+					skip(input, depth);
+					break;
+				}
+			}
+			return visitor.visitEnd();
+		}
+	},
+
+
+	/**
+	 * TAG_Int_Array
+	 */
+	INT_ARRAY ((byte) 11, "TAG_Int_Array") {
+
+		@Override
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			limiter.addBytesRead(24L);
+			int len = input.readInt();
+			if (len < 0) {
+				throw new MalformedNBTException("Negative array size");
+			}
+			limiter.addBytesRead(4L * len);
+			int[] array = NBTIOUtil.readIntArray(input, len);
+			NBTTagIntArray tag = new NBTTagIntArray();
+			tag.setArray0(array);
+			return tag;
+		}
+
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			int len = input.readInt();
+			if (len < 0) {
+				throw new MalformedNBTException("Negative array size");
+			}
+			NBTIOUtil.skipBytes(input, 4L * len);
+		}
+
+		@Override
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			limiter.addBytesRead(24L);
+			int len = input.readInt();
+			if (len < 0) {
+				throw new MalformedNBTException("Negative array size");
+			}
+			limiter.addBytesRead(4L * len);
+			return visitor.visitIntArray(NBTIOUtil.readIntArray(input, len));
+		}
+	},
+
+	/**
+	 * TAG_Long_Array
+	 */
+	LONG_ARRAY ((byte) 12, "TAG_Long_Array") {
+
+		@Override
+		public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (options == null) {
+				throw new NullPointerException("Options cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			// No clue why but this is what Minecraft does
+			limiter.addBytesRead(24L);
+			int len = input.readInt();
+			if (len < 0) {
+				throw new MalformedNBTException("Negative array size");
+			}
+			limiter.addBytesRead(8L * len);
+			long[] array = NBTIOUtil.readLongArray(input, len);
+			NBTTagLongArray tag = new NBTTagLongArray();
+			tag.setArray0(array);
+			return tag;
+		}
+
+		@Override
+		public void skip(DataInput input, int depth) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			int len = input.readInt();
+			if (len < 0) {
+				throw new MalformedNBTException("Negative array size");
+			}
+			NBTIOUtil.skipBytes(input, 8L * len);
+		}
+
+		@Override
+		public NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
+			// Preconditions
+			if (input == null) {
+				throw new NullPointerException("Input cannot be null");
+			}
+			if (limiter == null) {
+				throw new NullPointerException("Limiter cannot be null");
+			}
+			if (visitor == null) {
+				throw new NullPointerException("Visitor cannot be null");
+			}
+			if (depth < 0) {
+				throw new IllegalArgumentException("Depth cannot be negative");
+			}
+
+			limiter.addBytesRead(24L);
+			int len = input.readInt();
+			if (len < 0) {
+				throw new MalformedNBTException("Negative array size");
+			}
+			limiter.addBytesRead(8L * len);
+			return visitor.visitLongArray(NBTIOUtil.readLongArray(input, len));
+		}
+	};
+
+	// Lookup tables because values() copies the array every call
+	private static final NBTTagType[] BY_ID = new NBTTagType[256];
+	private static final Map<String, NBTTagType> BY_NAME = new HashMap<>();
+	private final byte id;
+	private final String name;
+
+	static {
+		for (NBTTagType type : values()) {
+			BY_ID[type.getId() & 0xFF] = type;
+			BY_NAME.put(type.getName(), type);
+		}
+	}
 
 	private NBTTagType(byte id, String name) {
 		if (name == null) {
@@ -470,7 +1081,57 @@ public enum NBTTagType {
 	 * @return the created instance.
 	 * @throws IOException if an I/O error occurs.
 	 */
-	public abstract INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException;
+	public INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter) throws IOException {
+		return read(input, depth, limiter, NBTReadOptions.DEFAULT);
+	}
+
+	/**
+	 * Read a tag from data input.
+	 *
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @param limiter Size limiter.
+	 * @param options Read options.
+	 * @return the created instance.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public abstract INBTTag<?> read(DataInput input, int depth, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException;
+
+	/**
+	 * Skip over a tag in a data input without decoding it.
+	 * Note that this only checks the structure of the skipped data.
+	 *
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public abstract void skip(DataInput input, int depth) throws IOException;
+
+	/**
+	 * Read a tag from data input and report it to a visitor without creating tags.
+	 *
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @param visitor Target visitor.
+	 * @return the result of the last callback for the enclosing compound or list.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public NBTVisitor.Result accept(DataInput input, int depth, NBTVisitor visitor) throws IOException {
+		return accept(input, depth, NBTSizeLimiter.UNLIMITED, visitor);
+	}
+
+	/**
+	 * Read a tag from data input and report it to a visitor without creating tags.
+	 * The limiter is charged the same as when reading tags, except for skipped data.
+	 *
+	 * @param input Target input.
+	 * @param depth Current depth.
+	 * @param limiter Size limiter.
+	 * @param visitor Target visitor.
+	 * @return the result of the last callback for the enclosing compound or list.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public abstract NBTVisitor.Result accept(DataInput input, int depth, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException;
 
 	/**
 	 * Get a type from id.
@@ -479,12 +1140,7 @@ public enum NBTTagType {
 	 * @return the type or null if no type with the given id exists.
 	 */
 	public static NBTTagType fromId(byte id) {
-		for (NBTTagType type : values()) {
-			if (id == type.getId()) {
-				return type;
-			}
-		}
-		return null;
+		return BY_ID[id & 0xFF];
 	}
 
 	/**
@@ -499,11 +1155,6 @@ public enum NBTTagType {
 			throw new NullPointerException("Name cannot be null");
 		}
 
-		for (NBTTagType type : values()) {
-			if (name.equals(type.getName())) {
-				return type;
-			}
-		}
-		return null;
+		return BY_NAME.get(name);
 	}
 }
@@ -3,24 +3,33 @@ package net.steelphoenix.nbtlib;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import net.steelphoenix.nbtlib.tag.NBTTagByte;
 import net.steelphoenix.nbtlib.tag.NBTTagByteArray;
 import net.steelphoenix.nbtlib.tag.NBTTagCompound;
-import net.steelphoenix.nbtlib.tag.NBTTagDouble;
-import net.steelphoenix.nbtlib.tag.NBTTagFloat;
-import net.steelphoenix.nbtlib.tag.NBTTagInt;
 import net.steelphoenix.nbtlib.tag.NBTTagIntArray;
 import net.steelphoenix.nbtlib.tag.NBTTagList;
-import net.steelphoenix.nbtlib.tag.NBTTagLong;
 import net.steelphoenix.nbtlib.tag.NBTTagLongArray;
-import net.steelphoenix.nbtlib.tag.NBTTagShort;
 import net.steelphoenix.nbtlib.tag.NBTTagString;
 
 /**
@@ -76,6 +85,33 @@ public class NBTUtil {
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public static Entry<String, NBTTagCompound> readNamed(DataInput input, NBTSizeLimiter limiter) throws IOException {
+		return readNamed(input, limiter, NBTReadOptions.DEFAULT);
+	}
+
+	/**
+	 * Read a compound tag from a data input.
+	 *
+	 * @param input Target input.
+	 * @param limiter Tag size limiter.
+	 * @param options Read options.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound read(DataInput input, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+		return readNamed(input, limiter, options).getValue();
+	}
+
+	/**
+	 * Read a named compound tag from a data input.
+	 * Note that lazy reading only applies to byte buffers and is ignored.
+	 *
+	 * @param input Target input.
+	 * @param limiter Tag size limiter.
+	 * @param options Read options.
+	 * @return the read compound tag and name.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static Entry<String, NBTTagCompound> readNamed(DataInput input, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
 		// Preconditions
 		if (input == null) {
 			throw new NullPointerException("Input cannot be null");
@@ -83,19 +119,478 @@ public class NBTUtil {
 		if (limiter == null) {
 			throw new NullPointerException("Limiter cannot be null");
 		}
+		if (options == null) {
+			throw new NullPointerException("Options cannot be null");
+		}
 
-		byte id = input.readByte();
-		NBTTagType type = NBTTagType.fromId(id);
+		checkRoot(input.readByte());
 
-		if (type == null) {
-			throw new MalformedNBTException("Unknown root type: " + id);
+		// Note that trailing data is ignored
+		return new SimpleImmutableEntry<>(NBTIOUtil.readUTF(input), (NBTTagCompound) NBTTagType.COMPOUND.read(input, 0, limiter, options));
+	}
+
+	/**
+	 * Read the parts of a compound tag selected by a filter from a data input.
+	 *
+	 * @param input Target input.
+	 * @param limiter Tag size limiter.
+	 * @param filter Path filter.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound read(DataInput input, NBTSizeLimiter limiter, NBTPathFilter filter) throws IOException {
+		return readNamed(input, limiter, filter).getValue();
+	}
+
+	/**
+	 * Read the parts of a named compound tag selected by a filter from a data input.
+	 * Everything else is skipped without being decoded and does not count towards the size limit.
+	 *
+	 * @param input Target input.
+	 * @param limiter Tag size limiter.
+	 * @param filter Path filter.
+	 * @return the read compound tag and name.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static Entry<String, NBTTagCompound> readNamed(DataInput input, NBTSizeLimiter limiter, NBTPathFilter filter) throws IOException {
+		// Preconditions
+		if (input == null) {
+			throw new NullPointerException("Input cannot be null");
 		}
-		if (type != NBTTagType.COMPOUND) {
-			throw new MalformedNBTException("Root is not of type " + NBTTagType.COMPOUND.getName());
+		if (limiter == null) {
+			throw new NullPointerException("Limiter cannot be null");
+		}
+		if (filter == null) {
+			throw new NullPointerException("Filter cannot be null");
+		}
+
+		checkRoot(input.readByte());
+
+		// Note that trailing data is ignored
+		return new SimpleImmutableEntry<>(NBTIOUtil.readUTF(input), filter.read(input, 0, limiter));
+	}
+
+	/**
+	 * Read a compound tag from a byte buffer.
+	 * The buffer position is advanced past the read data if reading succeeds.
+	 *
+	 * @param buffer Target buffer.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound read(ByteBuffer buffer) throws IOException {
+		return read(buffer, NBTSizeLimiter.UNLIMITED);
+	}
+
+	/**
+	 * Read a compound tag from a byte buffer.
+	 * The buffer position is advanced past the read data if reading succeeds.
+	 *
+	 * @param buffer Target buffer.
+	 * @param limiter Tag size limiter.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound read(ByteBuffer buffer, NBTSizeLimiter limiter) throws IOException {
+		return read(buffer, limiter, false);
+	}
+
+	/**
+	 * Read a compound tag from a byte buffer.
+	 * The buffer position is advanced past the read data if reading succeeds.
+	 * If reading lazily, compound values are only decoded when first accessed.
+	 * In that case the buffer contents may not be modified until all values have been accessed.
+	 *
+	 * @param buffer Target buffer.
+	 * @param limiter Tag size limiter.
+	 * @param lazy If compound values should be decoded lazily.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound read(ByteBuffer buffer, NBTSizeLimiter limiter, boolean lazy) throws IOException {
+		return readNamed(buffer, limiter, lazy).getValue();
+	}
+
+	/**
+	 * Read a compound tag from a byte buffer.
+	 * The buffer position is advanced past the read data if reading succeeds.
+	 * If reading lazily, the buffer contents may not be modified until all values have been accessed.
+	 *
+	 * @param buffer Target buffer.
+	 * @param limiter Tag size limiter.
+	 * @param options Read options.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound read(ByteBuffer buffer, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+		return readNamed(buffer, limiter, options).getValue();
+	}
+
+	/**
+	 * Read a named compound tag from a byte buffer.
+	 * The buffer position is advanced past the read data if reading succeeds.
+	 *
+	 * @param buffer Target buffer.
+	 * @return the read compound tag and name.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static Entry<String, NBTTagCompound> readNamed(ByteBuffer buffer) throws IOException {
+		return readNamed(buffer, NBTSizeLimiter.UNLIMITED);
+	}
+
+	/**
+	 * Read a named compound tag from a byte buffer.
+	 * The buffer position is advanced past the read data if reading succeeds.
+	 *
+	 * @param buffer Target buffer.
+	 * @param limiter Tag size limiter.
+	 * @return the read compound tag and name.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static Entry<String, NBTTagCompound> readNamed(ByteBuffer buffer, NBTSizeLimiter limiter) throws IOException {
+		return readNamed(buffer, limiter, false);
+	}
+
+	/**
+	 * Read a named compound tag from a byte buffer.
+	 * The buffer position is advanced past the read data if reading succeeds.
+	 * If reading lazily, compound values are only decoded when first accessed.
+	 * In that case the buffer contents may not be modified until all values have been accessed.
+	 *
+	 * @param buffer Target buffer.
+	 * @param limiter Tag size limiter.
+	 * @param lazy If compound values should be decoded lazily.
+	 * @return the read compound tag and name.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static Entry<String, NBTTagCompound> readNamed(ByteBuffer buffer, NBTSizeLimiter limiter, boolean lazy) throws IOException {
+		NBTReadOptions options = new NBTReadOptions();
+		options.setLazy(lazy);
+		return readNamed(buffer, limiter, options);
+	}
+
+	/**
+	 * Read a named compound tag from a byte buffer.
+	 * The buffer position is advanced past the read data if reading succeeds.
+	 * If reading lazily, the buffer contents may not be modified until all values have been accessed.
+	 *
+	 * @param buffer Target buffer.
+	 * @param limiter Tag size limiter.
+	 * @param options Read options.
+	 * @return the read compound tag and name.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static Entry<String, NBTTagCompound> readNamed(ByteBuffer buffer, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+		// Preconditions
+		if (buffer == null) {
+			throw new NullPointerException("Buffer cannot be null");
+		}
+		if (limiter == null) {
+			throw new NullPointerException("Limiter cannot be null");
+		}
+		if (options == null) {
+			throw new NullPointerException("Options cannot be null");
+		}
+
+		ByteBufferDataInput input = new ByteBufferDataInput(buffer);
+		Entry<String, NBTTagCompound> entry;
+		if (options.isLazy()) {
+			checkRoot(input.readByte());
+			entry = new SimpleImmutableEntry<>(input.readUTF(), LazyCompoundMap.readCompound(input, 0, limiter, options));
+		}
+		else {
+			entry = readNamed(input, limiter, options);
+		}
+		buffer.position(input.getPosition());
+		return entry;
+	}
+
+	/**
+	 * Read a compound tag from an uncompressed file by mapping it into memory.
+	 *
+	 * @param path Target file.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound readMapped(Path path) throws IOException {
+		return readMapped(path, NBTSizeLimiter.UNLIMITED);
+	}
+
+	/**
+	 * Read a compound tag from an uncompressed file by mapping it into memory.
+	 * The file is parsed in place so its contents are read straight from the page cache.
+	 *
+	 * @param path Target file.
+	 * @param limiter Tag size limiter.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound readMapped(Path path, NBTSizeLimiter limiter) throws IOException {
+		return readMapped(path, limiter, false);
+	}
+
+	/**
+	 * Read a compound tag from an uncompressed file by mapping it into memory.
+	 * The file is parsed in place so its contents are read straight from the page cache.
+	 * If reading lazily, compound values are only decoded when first accessed.
+	 * In that case the file may not be modified until all values have been accessed.
+	 *
+	 * @param path Target file.
+	 * @param limiter Tag size limiter.
+	 * @param lazy If compound values should be decoded lazily.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound readMapped(Path path, NBTSizeLimiter limiter, boolean lazy) throws IOException {
+		return read(map(path), limiter, lazy);
+	}
+
+	/**
+	 * Read a compound tag from an uncompressed file by mapping it into memory.
+	 * The file is parsed in place so its contents are read straight from the page cache.
+	 * If reading lazily, the file may not be modified until all values have been accessed.
+	 *
+	 * @param path Target file.
+	 * @param limiter Tag size limiter.
+	 * @param options Read options.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound readMapped(Path path, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+		return read(map(path), limiter, options);
+	}
+
+	/**
+	 * Read a compound tag from a file, detecting its compression format.
+	 *
+	 * @param path Target file.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound readCompressed(Path path) throws IOException {
+		return readCompressed(path, NBTSizeLimiter.UNLIMITED, NBTReadOptions.DEFAULT);
+	}
+
+	/**
+	 * Read a compound tag from a file, detecting its compression format.
+	 * The file is read completely and decompressed into a private buffer that is parsed in place.
+	 * Decompression stops as soon as the data is too large to be accepted by the limiter.
+	 *
+	 * @param path Target file.
+	 * @param limiter Tag size limiter.
+	 * @param options Read options.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound readCompressed(Path path, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+		// Preconditions
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+		if (limiter == null) {
+			throw new NullPointerException("Limiter cannot be null");
+		}
+
+		byte[] bytes = Files.readAllBytes(path);
+		return readCompressed(bytes, bytes.length, limiter, options);
+	}
+
+	/**
+	 * Read a compound tag from a stream, detecting its compression format.
+	 * Note that the stream is read to its end but not closed.
+	 *
+	 * @param input Target stream.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound readCompressed(InputStream input) throws IOException {
+		return readCompressed(input, NBTSizeLimiter.UNLIMITED, NBTReadOptions.DEFAULT);
+	}
+
+	/**
+	 * Read a compound tag from a stream, detecting its compression format.
+	 * The stream is read completely and decompressed into a private buffer that is parsed in place.
+	 * Decompression stops as soon as the data is too large to be accepted by the limiter.
+	 * Note that the stream is read to its end but not closed.
+	 *
+	 * @param input Target stream.
+	 * @param limiter Tag size limiter.
+	 * @param options Read options.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound readCompressed(InputStream input, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+		// Preconditions
+		if (input == null) {
+			throw new NullPointerException("Input cannot be null");
+		}
+		if (limiter == null) {
+			throw new NullPointerException("Limiter cannot be null");
+		}
+
+		byte[] bytes = new byte[8192];
+		int length = 0;
+		int read;
+		while ((read = input.read(bytes, length, bytes.length - length)) != -1) {
+			length += read;
+			if (length == bytes.length) {
+				if (length == Integer.MAX_VALUE - 8) {
+					throw new IOException("Stream is too large");
+				}
+				bytes = Arrays.copyOf(bytes, (int) Math.min(Integer.MAX_VALUE - 8, length * 2L));
+			}
+		}
+		return readCompressed(bytes, length, limiter, options);
+	}
+
+	/**
+	 * Read a compound tag from a file on an executor, detecting its compression format.
+	 *
+	 * @param path Target file.
+	 * @param executor Target executor.
+	 * @return a future completed with the read compound tag.
+	 */
+	public static CompletableFuture<NBTTagCompound> readAsync(Path path, Executor executor) {
+		return readAsync(path, NBTSizeLimiter.UNLIMITED, NBTReadOptions.DEFAULT, executor);
+	}
+
+	/**
+	 * Read a compound tag from a file on an executor, detecting its compression format.
+	 * The future is completed exceptionally if reading fails.
+	 * Note that the limiter and options should not be used elsewhere until the future is completed.
+	 *
+	 * @param path Target file.
+	 * @param limiter Tag size limiter.
+	 * @param options Read options.
+	 * @param executor Target executor.
+	 * @return a future completed with the read compound tag.
+	 */
+	public static CompletableFuture<NBTTagCompound> readAsync(Path path, NBTSizeLimiter limiter, NBTReadOptions options, Executor executor) {
+		// Preconditions
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+		if (limiter == null) {
+			throw new NullPointerException("Limiter cannot be null");
+		}
+		if (options == null) {
+			throw new NullPointerException("Options cannot be null");
+		}
+		if (executor == null) {
+			throw new NullPointerException("Executor cannot be null");
+		}
+
+		CompletableFuture<NBTTagCompound> future = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				future.complete(readCompressed(path, limiter, options));
+			} catch (Throwable exception) {
+				future.completeExceptionally(exception);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Read a compound tag from a data input and report it to a visitor without creating tags.
+	 * The root tag is reported through {@link NBTVisitor#visitKey(NBTTagType, String)} with its name.
+	 *
+	 * @param input Target input.
+	 * @param visitor Target visitor.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void visit(DataInput input, NBTVisitor visitor) throws IOException {
+		visit(input, NBTSizeLimiter.UNLIMITED, visitor);
+	}
+
+	/**
+	 * Read a compound tag from a data input and report it to a visitor without creating tags.
+	 * The root tag is reported through {@link NBTVisitor#visitKey(NBTTagType, String)} with its name.
+	 *
+	 * @param input Target input.
+	 * @param limiter Tag size limiter.
+	 * @param visitor Target visitor.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void visit(DataInput input, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
+		// Preconditions
+		if (input == null) {
+			throw new NullPointerException("Input cannot be null");
+		}
+		if (limiter == null) {
+			throw new NullPointerException("Limiter cannot be null");
+		}
+		if (visitor == null) {
+			throw new NullPointerException("Visitor cannot be null");
+		}
+
+		checkRoot(input.readByte());
+		NBTVisitor.Result result = visitor.visitKey(NBTTagType.COMPOUND, NBTIOUtil.readUTF(input));
+		if (result == NBTVisitor.Result.STOP) {
+			return;
+		}
+		if (result == NBTVisitor.Result.SKIP) {
+			NBTTagType.COMPOUND.skip(input, 0);
+			return;
 		}
 
 		// Note that trailing data is ignored
-		return new SimpleImmutableEntry<>(input.readUTF(), (NBTTagCompound) type.read(input, 0, limiter));
+		NBTTagType.COMPOUND.accept(input, 0, limiter, visitor);
+	}
+
+	/**
+	 * Read a compound tag from a byte buffer and report it to a visitor without creating tags.
+	 * The root tag is reported through {@link NBTVisitor#visitKey(NBTTagType, String)} with its name.
+	 * The buffer position is advanced past the read data if reading succeeds or is stopped.
+	 *
+	 * @param buffer Target buffer.
+	 * @param visitor Target visitor.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void visit(ByteBuffer buffer, NBTVisitor visitor) throws IOException {
+		visit(buffer, NBTSizeLimiter.UNLIMITED, visitor);
+	}
+
+	/**
+	 * Read a compound tag from a byte buffer and report it to a visitor without creating tags.
+	 * The root tag is reported through {@link NBTVisitor#visitKey(NBTTagType, String)} with its name.
+	 * The buffer position is advanced past the read data if reading succeeds or is stopped.
+	 *
+	 * @param buffer Target buffer.
+	 * @param limiter Tag size limiter.
+	 * @param visitor Target visitor.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void visit(ByteBuffer buffer, NBTSizeLimiter limiter, NBTVisitor visitor) throws IOException {
+		// Preconditions
+		if (buffer == null) {
+			throw new NullPointerException("Buffer cannot be null");
+		}
+
+		ByteBufferDataInput input = new ByteBufferDataInput(buffer);
+		visit(input, limiter, visitor);
+		buffer.position(input.getPosition());
+	}
+
+	/**
+	 * Get the amount of bytes writing a named compound tag takes.
+	 * This can be used to allocate a buffer of the exact size up front.
+	 *
+	 * @param name Target name.
+	 * @param tag Target tag.
+	 * @return the serialized size.
+	 */
+	public static long serializedSize(String name, NBTTagCompound tag) {
+		// Preconditions
+		if (name == null) {
+			throw new NullPointerException("Name cannot be null");
+		}
+		if (tag == null) {
+			throw new NullPointerException("Tag cannot be null");
+		}
+
+		// Type id, name and value
+		return 3L + NBTIOUtil.getUTFLength(name) + tag.serializedSize();
 	}
 
 	/**
@@ -130,10 +625,260 @@ public class NBTUtil {
 		}
 
 		output.writeByte(tag.getTypeId());
-		output.writeUTF(name);
+		NBTIOUtil.writeUTF(output, name);
 		tag.write(output);
 	}
 
+	/**
+	 * Write a compound tag to a byte buffer.
+	 * The buffer position is advanced past the written data if writing succeeds.
+	 *
+	 * @param buffer Target buffer.
+	 * @param tag Target tag.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws java.nio.BufferOverflowException if the buffer does not have enough space remaining.
+	 */
+	public static void write(ByteBuffer buffer, NBTTagCompound tag) throws IOException {
+		writeNamed(buffer, tag, "");
+	}
+
+	/**
+	 * Write a named compound tag to a byte buffer.
+	 * The buffer position is advanced past the written data if writing succeeds.
+	 *
+	 * @param buffer Target buffer.
+	 * @param tag Target tag.
+	 * @param name Target name.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws java.nio.BufferOverflowException if the buffer does not have enough space remaining.
+	 */
+	public static void writeNamed(ByteBuffer buffer, NBTTagCompound tag, String name) throws IOException {
+		// Preconditions
+		if (buffer == null) {
+			throw new NullPointerException("Buffer cannot be null");
+		}
+
+		ByteBufferDataOutput output = new ByteBufferDataOutput(buffer);
+		writeNamed(output, tag, name);
+		buffer.position(output.getPosition());
+	}
+
+	/**
+	 * Write a compound tag to a channel.
+	 * Note that the channel is not closed.
+	 *
+	 * @param channel Target channel.
+	 * @param tag Target tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void write(WritableByteChannel channel, NBTTagCompound tag) throws IOException {
+		writeNamed(channel, tag, "");
+	}
+
+	/**
+	 * Write a named compound tag to a channel.
+	 * The tag is serialized into a buffer of its exact size that is then written in full.
+	 * Note that non-blocking channels are retried until they accept all data.
+	 * Note that the channel is not closed.
+	 *
+	 * @param channel Target channel.
+	 * @param tag Target tag.
+	 * @param name Target name.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void writeNamed(WritableByteChannel channel, NBTTagCompound tag, String name) throws IOException {
+		// Preconditions
+		if (channel == null) {
+			throw new NullPointerException("Channel cannot be null");
+		}
+		if (tag == null) {
+			throw new NullPointerException("Tag cannot be null");
+		}
+		if (name == null) {
+			throw new NullPointerException("Name cannot be null");
+		}
+
+		// Type, name and payload
+		long size = 3L + NBTIOUtil.getUTFLength(name) + tag.serializedSize();
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IOException("Tag is too large to write: " + size + " byte(s)");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate((int) size);
+		writeNamed(buffer, tag, name);
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Write a compound tag to a file.
+	 * The file is created or replaced.
+	 *
+	 * @param path Target file.
+	 * @param tag Target tag.
+	 * @param compression Compression format.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void writeCompressed(Path path, NBTTagCompound tag, NBTCompression compression) throws IOException {
+		// Preconditions
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+
+		Files.write(path, compress(tag, compression));
+	}
+
+	/**
+	 * Write a compound tag to a file on an executor using GZIP compression.
+	 *
+	 * @param path Target file.
+	 * @param tag Target tag.
+	 * @param executor Target executor.
+	 * @return a future completed once the file is written.
+	 */
+	public static CompletableFuture<Void> writeAsync(Path path, NBTTagCompound tag, Executor executor) {
+		return writeAsync(path, tag, NBTCompressions.GZIP, executor);
+	}
+
+	/**
+	 * Write a compound tag to a file on an executor.
+	 * A copy of the tag is taken before returning, so the tag can be changed while it is written.
+	 * The future is completed exceptionally if writing fails.
+	 *
+	 * @param path Target file.
+	 * @param tag Target tag.
+	 * @param compression Compression format.
+	 * @param executor Target executor.
+	 * @return a future completed once the file is written.
+	 */
+	public static CompletableFuture<Void> writeAsync(Path path, NBTTagCompound tag, NBTCompression compression, Executor executor) {
+		// Preconditions
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+		if (tag == null) {
+			throw new NullPointerException("Tag cannot be null");
+		}
+		if (compression == null) {
+			throw new NullPointerException("Compression cannot be null");
+		}
+		if (executor == null) {
+			throw new NullPointerException("Executor cannot be null");
+		}
+
+		// Values are shared with the copy until either one is changed so this is cheap
+		NBTTagCompound snapshot = tag.copy();
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				writeCompressed(path, snapshot, compression);
+				future.complete(null);
+			} catch (Throwable exception) {
+				future.completeExceptionally(exception);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Write a compound tag to a stream.
+	 * Note that the stream is not closed.
+	 *
+	 * @param output Target stream.
+	 * @param tag Target tag.
+	 * @param compression Compression format.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void writeCompressed(OutputStream output, NBTTagCompound tag, NBTCompression compression) throws IOException {
+		// Preconditions
+		if (output == null) {
+			throw new NullPointerException("Output cannot be null");
+		}
+
+		output.write(compress(tag, compression));
+	}
+
+	/**
+	 * Decompress and read a compound tag, detecting its compression format.
+	 *
+	 * @param bytes Source bytes.
+	 * @param length Byte count.
+	 * @param limiter Tag size limiter.
+	 * @param options Read options.
+	 * @return the read compound tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static NBTTagCompound readCompressed(byte[] bytes, int length, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+		NBTCompression compression = NBTCompressions.detect(bytes, 0, length);
+		if (compression == null) {
+			throw new MalformedNBTException("Unknown compression format");
+		}
+		return read(compression.decompress(bytes, 0, length, limiter.getMaxBinarySize()), limiter, options);
+	}
+
+	/**
+	 * Serialize and compress a compound tag.
+	 *
+	 * @param tag Target tag.
+	 * @param compression Compression format.
+	 * @return the compressed data.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static byte[] compress(NBTTagCompound tag, NBTCompression compression) throws IOException {
+		// Preconditions
+		if (compression == null) {
+			throw new NullPointerException("Compression cannot be null");
+		}
+
+		long size = serializedSize("", tag);
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IOException("Tag is too large (" + size + " byte(s))");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate((int) size);
+		write(buffer, tag);
+		return compression.compress(buffer.array(), 0, buffer.position());
+	}
+
+	/**
+	 * Check if a root tag type id is valid.
+	 *
+	 * @param id Target id.
+	 */
+	private static void checkRoot(byte id) {
+		NBTTagType type = NBTTagType.fromId(id);
+
+		if (type == null) {
+			throw new MalformedNBTException("Unknown root type: " + id);
+		}
+		if (type != NBTTagType.COMPOUND) {
+			throw new MalformedNBTException("Root is not of type " + NBTTagType.COMPOUND.getName());
+		}
+	}
+
+	/**
+	 * Map a file into memory.
+	 * Note that the mapping stays valid after the channel is closed.
+	 *
+	 * @param path Target file.
+	 * @return the mapped buffer.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static MappedByteBuffer map(Path path) throws IOException {
+		// Preconditions
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("File is too large to map (" + size + " byte(s)): " + path);
+			}
+			return channel.map(MapMode.READ_ONLY, 0L, size);
+		}
+	}
+
 	/**
 	 * Parse a stringified NBT tag.
 	 * Note that the top level needs to be a compound tag.
@@ -142,15 +887,94 @@ public class NBTUtil {
 	 * @return the parsed tag.
 	 */
 	public static NBTTagCompound parse(String text) {
+		return parse((CharSequence) text, NBTReadOptions.DEFAULT);
+	}
+
+	/**
+	 * Parse a stringified NBT tag.
+	 * Note that the top level needs to be a compound tag.
+	 * Note that only shared numbers apply to parsing.
+	 *
+	 * @param text Target text.
+	 * @param options Read options.
+	 * @return the parsed tag.
+	 */
+	public static NBTTagCompound parse(String text, NBTReadOptions options) {
+		return parse((CharSequence) text, options);
+	}
+
+	/**
+	 * Parse a stringified NBT tag.
+	 * Note that the top level needs to be a compound tag.
+	 *
+	 * @param text Target text.
+	 * @return the parsed tag.
+	 */
+	public static NBTTagCompound parse(CharSequence text) {
+		return parse(text, NBTReadOptions.DEFAULT);
+	}
+
+	/**
+	 * Parse a stringified NBT tag.
+	 * Note that the top level needs to be a compound tag.
+	 *
+	 * @param reader Source reader.
+	 * @return the parsed tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound parse(Reader reader) throws IOException {
+		return parse(reader, NBTReadOptions.DEFAULT);
+	}
+
+	/**
+	 * Parse a stringified NBT tag.
+	 * Note that the top level needs to be a compound tag.
+	 * Note that only shared numbers apply to parsing.
+	 * Note that the reader is read fully and not closed.
+	 *
+	 * @param reader Source reader.
+	 * @param options Read options.
+	 * @return the parsed tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static NBTTagCompound parse(Reader reader, NBTReadOptions options) throws IOException {
+		// Preconditions
+		if (reader == null) {
+			throw new NullPointerException("Reader cannot be null");
+		}
+
+		// The lexer works on the builder directly so the text is not copied again
+		StringBuilder builder = new StringBuilder();
+		char[] buffer = new char[8192];
+		int read;
+		while ((read = reader.read(buffer)) != -1) {
+			builder.append(buffer, 0, read);
+		}
+		return parse(builder, options);
+	}
+
+	/**
+	 * Parse a stringified NBT tag.
+	 * Note that the top level needs to be a compound tag.
+	 * Note that only shared numbers apply to parsing.
+	 *
+	 * @param text Target text.
+	 * @param options Read options.
+	 * @return the parsed tag.
+	 */
+	public static NBTTagCompound parse(CharSequence text, NBTReadOptions options) {
 		// Preconditions
 		if (text == null) {
 			throw new NullPointerException("Text cannot be null");
 		}
+		if (options == null) {
+			throw new NullPointerException("Options cannot be null");
+		}
 
 		Lexer lexer = new Lexer(text);
 		NBTTagCompound tag;
 		try {
-			tag = readCompound(lexer);
+			tag = readCompound(lexer, options.isSharedNumbers());
 		} catch (LexerException exception) {
 			throw new MalformedNBTException(exception);
 		}
@@ -165,9 +989,10 @@ public class NBTUtil {
 	 * Read a compound tag.
 	 *
 	 * @param lexer Target lexer.
+	 * @param shared If numeric tags are shared.
 	 * @return the read tag.
 	 */
-	private static NBTTagCompound readCompound(Lexer lexer) {
+	private static NBTTagCompound readCompound(Lexer lexer, boolean shared) {
 		// Preconditions
 		if (lexer == null) {
 			throw new NullPointerException("Lexer cannot be null");
@@ -184,7 +1009,7 @@ public class NBTUtil {
 				throw new MalformedNBTException("Expected key at index " + i);
 			}
 			lexer.expect(':');
-			map.put(key, readValue(lexer));
+			map.put(key, readValue(lexer, shared));
 
 			lexer.skipWhitespace();
 
@@ -207,9 +1032,10 @@ public class NBTUtil {
 	 * Read a list tag.
 	 *
 	 * @param lexer Target lexer.
+	 * @param shared If numeric tags are shared.
 	 * @return the read tag.
 	 */
-	private static INBTTag<?> readList(Lexer lexer) {
+	private static INBTTag<?> readList(Lexer lexer, boolean shared) {
 		// Preconditions
 		if (lexer == null) {
 			throw new NullPointerException("Lexer cannot be null");
@@ -266,7 +1092,7 @@ public class NBTUtil {
 
 		while (lexer.canRead() && lexer.peek() != ']') {
 			int i = lexer.getCursor();
-			INBTTag<?> element = readValue(lexer);
+			INBTTag<?> element = readValue(lexer, shared);
 
 			// We say the list type is the first type encountered
 			if (type == null) {
@@ -300,17 +1126,30 @@ public class NBTUtil {
 			((NBTTagList) tag).setElementType(type == null ? NBTTagType.END : type);
 		}
 
-		((AbstractCollectionNBTTag<?>) tag).setValue0(list);
+		setElements((AbstractCollectionNBTTag<?>) tag, list);
 		return tag;
 	}
 
+	/**
+	 * Set the elements of a collection tag.
+	 * Note that the element types need to be checked beforehand.
+	 *
+	 * @param tag Target tag.
+	 * @param list Target elements.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E extends INBTTag<?>> void setElements(AbstractCollectionNBTTag<E> tag, List<INBTTag<?>> list) {
+		tag.setValue0((List<E>) (List<?>) list);
+	}
+
 	/**
 	 * Read a tag.
 	 *
 	 * @param lexer Target lexer.
+	 * @param shared If numeric tags are shared.
 	 * @return the value.
 	 */
-	private static INBTTag<?> readValue(Lexer lexer) {
+	private static INBTTag<?> readValue(Lexer lexer, boolean shared) {
 		// Preconditions
 		if (lexer == null) {
 			throw new NullPointerException("Lexer cannot be null");
@@ -327,97 +1166,40 @@ public class NBTUtil {
 
 		// Compound tag
 		if (c == '{') {
-			return readCompound(lexer);
+			return readCompound(lexer, shared);
 		}
 
 		// List or array tag
 		if (c == '[') {
-			return readList(lexer);
+			return readList(lexer, shared);
 		}
 
-		int i = lexer.getCursor();
-		boolean quote = c == '\"' || c == '\'';
-		String string = lexer.readString();
-
 		// Explicitly a string because it is quoted
-		if (quote) {
-			return new NBTTagString(string);
+		if (c == '\"' || c == '\'') {
+			return new NBTTagString(lexer.readString());
 		}
 
 		// No characters read
-		if (string.isEmpty()) {
-			lexer.setCursor(i);
-			throw new MalformedNBTException("Expected value at index " + lexer.getCursor());
-		}
-
-		char suffix = string.charAt(string.length() - 1);
-
-		// Try to parse based on suffix
-		// Note that this is not true to the way Minecraft parses SNBT as that tests patterns and we just try based on suffix
-		// This also means some numbers can get parsed where Minecraft would complain like NaNf
-		// TODO: Pattern based numeric matching
-		switch (suffix) {
-			case 'b':
-			case 'B':
-				try {
-					return new NBTTagByte(Byte.parseByte(string.substring(0, string.length() - 1)));
-				} catch (NumberFormatException exception) {
-					break;
-				}
-			case 'd':
-			case 'D':
-				try {
-					return new NBTTagDouble(Byte.parseByte(string.substring(0, string.length() - 1)));
-				} catch (NumberFormatException exception) {
-					break;
-				}
-			case 'f':
-			case 'F':
-				try {
-					return new NBTTagFloat(Float.parseFloat(string.substring(0, string.length() - 1)));
-				} catch (NumberFormatException exception) {
-					break;
-				}
-			case 'l':
-			case 'L':
-				try {
-					return new NBTTagLong(Long.parseLong(string.substring(0, string.length() - 1)));
-				} catch (NumberFormatException exception) {
-					break;
-				}
-			case 's':
-			case 'S':
-				try {
-					return new NBTTagShort(Short.parseShort(string.substring(0, string.length() - 1)));
-				} catch (NumberFormatException exception) {
-					break;
-				}
-			default:
-				break;
+		int i = lexer.getCursor();
+		if (lexer.skipSimpleString() == 0) {
+			throw new MalformedNBTException("Expected value at index " + i);
 		}
+		int end = lexer.getCursor();
 
-		// No suffix double matching if the string contains a period
-		if (string.indexOf('.') != -1) {
-			try {
-				return new NBTTagDouble(Double.parseDouble(string));
-			} catch (NumberFormatException exception) {
-				//
-			}
+		// Numbers are matched the same way Minecraft matches them
+		INBTTag<?> number = SNBTNumbers.parse(lexer, i, end, shared);
+		if (number != null) {
+			return number;
 		}
 
-		// Integer does not have a specific suffix
-		try {
-			return new NBTTagInt(Integer.parseInt(string));
-		} catch (NumberFormatException exception) {
-			// Nothing
-		}
+		String string = lexer.getString(i, end);
 
 		// Boolean parsing
 		if (string.equalsIgnoreCase("true")) {
-			return new NBTTagByte(true);
+			return shared ? NBTTagByte.valueOf(true) : new NBTTagByte(true);
 		}
 		if (string.equalsIgnoreCase("false")) {
-			return new NBTTagByte(false);
+			return shared ? NBTTagByte.valueOf(false) : new NBTTagByte(false);
 		}
 
 		// Fall back on string
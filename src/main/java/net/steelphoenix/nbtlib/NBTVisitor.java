@@ -0,0 +1,195 @@
+package net.steelphoenix.nbtlib;
+
+/**
+ * A visitor for streaming binary NBT data without creating tags.
+ * All callbacks continue by default.
+ * The returned result controls what is read next:
+ * <ul>
+ * <li>{@link Result#CONTINUE} reads on as normal.</li>
+ * <li>{@link Result#SKIP} skips over data without decoding it (see the individual callbacks).</li>
+ * <li>{@link Result#STOP} stops reading altogether.</li>
+ * </ul>
+ * {@link #visitEnd()} is called for every compound or list for which the start callback continued, unless reading was stopped.
+ *
+ * @author SteelPhoenix
+ */
+public interface NBTVisitor {
+
+	/**
+	 * Visit a named tag.
+	 * This is called for the root tag and for every compound entry.
+	 * Skipping skips the value of the tag.
+	 *
+	 * @param type Tag type.
+	 * @param key Tag name.
+	 * @return the result.
+	 */
+	public default Result visitKey(NBTTagType type, String key) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit the start of a compound tag.
+	 * Skipping skips all entries of the compound.
+	 *
+	 * @return the result.
+	 */
+	public default Result visitCompoundStart() {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit the start of a list tag.
+	 * Skipping skips all elements of the list.
+	 *
+	 * @param type Element type.
+	 * @param size Element count.
+	 * @return the result.
+	 */
+	public default Result visitListStart(NBTTagType type, int size) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit the end of a compound or list tag.
+	 * Skipping skips the remaining entries or elements of the enclosing compound or list.
+	 *
+	 * @return the result.
+	 */
+	public default Result visitEnd() {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit a byte tag.
+	 * Skipping skips the remaining entries or elements of the enclosing compound or list.
+	 *
+	 * @param value Tag value.
+	 * @return the result.
+	 */
+	public default Result visitByte(byte value) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit a short tag.
+	 * Skipping skips the remaining entries or elements of the enclosing compound or list.
+	 *
+	 * @param value Tag value.
+	 * @return the result.
+	 */
+	public default Result visitShort(short value) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit an integer tag.
+	 * Skipping skips the remaining entries or elements of the enclosing compound or list.
+	 *
+	 * @param value Tag value.
+	 * @return the result.
+	 */
+	public default Result visitInt(int value) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit a long tag.
+	 * Skipping skips the remaining entries or elements of the enclosing compound or list.
+	 *
+	 * @param value Tag value.
+	 * @return the result.
+	 */
+	public default Result visitLong(long value) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit a float tag.
+	 * Skipping skips the remaining entries or elements of the enclosing compound or list.
+	 *
+	 * @param value Tag value.
+	 * @return the result.
+	 */
+	public default Result visitFloat(float value) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit a double tag.
+	 * Skipping skips the remaining entries or elements of the enclosing compound or list.
+	 *
+	 * @param value Tag value.
+	 * @return the result.
+	 */
+	public default Result visitDouble(double value) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit a string tag.
+	 * Skipping skips the remaining entries or elements of the enclosing compound or list.
+	 *
+	 * @param value Tag value.
+	 * @return the result.
+	 */
+	public default Result visitString(String value) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit a byte array tag.
+	 * Skipping skips the remaining entries or elements of the enclosing compound or list.
+	 *
+	 * @param value Tag value.
+	 * @return the result.
+	 */
+	public default Result visitByteArray(byte[] value) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit an integer array tag.
+	 * Skipping skips the remaining entries or elements of the enclosing compound or list.
+	 *
+	 * @param value Tag value.
+	 * @return the result.
+	 */
+	public default Result visitIntArray(int[] value) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * Visit a long array tag.
+	 * Skipping skips the remaining entries or elements of the enclosing compound or list.
+	 *
+	 * @param value Tag value.
+	 * @return the result.
+	 */
+	public default Result visitLongArray(long[] value) {
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * A visitor callback result.
+	 *
+	 * @author SteelPhoenix
+	 */
+	public static enum Result {
+
+		/**
+		 * Continue reading.
+		 */
+		CONTINUE,
+
+		/**
+		 * Skip data.
+		 */
+		SKIP,
+
+		/**
+		 * Stop reading.
+		 */
+		STOP;
+	}
+}
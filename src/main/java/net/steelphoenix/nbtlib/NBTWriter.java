@@ -0,0 +1,613 @@
+package net.steelphoenix.nbtlib;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A writer for streaming binary NBT data without creating tags.
+ * The structure is checked while writing: values can only be written inside an open compound or list tag,
+ * list elements must match the list element type and lists must receive exactly the declared amount of elements.
+ * Structural errors throw an {@link IllegalStateException}.
+ *
+ * @author SteelPhoenix
+ */
+public class NBTWriter {
+
+	private final DataOutput output;
+	private final ByteBuffer buffer;
+	private final Deque<Frame> frames = new ArrayDeque<>();
+	private boolean started = false;
+
+	public NBTWriter(DataOutput output) {
+		// Preconditions
+		if (output == null) {
+			throw new NullPointerException("Output cannot be null");
+		}
+
+		this.output = output;
+		this.buffer = null;
+	}
+
+	/**
+	 * Create a writer for a byte buffer.
+	 * The buffer position is advanced after every successful write.
+	 *
+	 * @param buffer Target buffer.
+	 */
+	public NBTWriter(ByteBuffer buffer) {
+		this.output = new ByteBufferDataOutput(buffer);
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Get if the root compound tag has been written completely.
+	 *
+	 * @return if the root tag is complete.
+	 */
+	public boolean isComplete() {
+		return started && frames.isEmpty();
+	}
+
+	/**
+	 * Begin a compound tag.
+	 * If nothing has been written yet this begins the root tag, otherwise it begins an entry of the current compound tag.
+	 *
+	 * @param name Tag name.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void beginCompound(String name) throws IOException {
+		// Root tag
+		if (!started) {
+			// Preconditions
+			if (name == null) {
+				throw new NullPointerException("Name cannot be null");
+			}
+
+			output.writeByte(NBTTagType.COMPOUND.getId());
+			NBTIOUtil.writeUTF(output, name);
+			started = true;
+		}
+		else {
+			key(name, NBTTagType.COMPOUND);
+		}
+		frames.push(new Frame(NBTTagType.COMPOUND, null, 0));
+		sync();
+	}
+
+	/**
+	 * Begin a compound tag as an element of the current list tag.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void beginCompound() throws IOException {
+		element(NBTTagType.COMPOUND);
+		frames.push(new Frame(NBTTagType.COMPOUND, null, 0));
+	}
+
+	/**
+	 * Begin a list tag as an entry of the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param type Element type.
+	 * @param size Element count.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void beginList(String key, NBTTagType type, int size) throws IOException {
+		checkList(type, size);
+		key(key, NBTTagType.LIST);
+		list(type, size);
+	}
+
+	/**
+	 * Begin a list tag as an element of the current list tag.
+	 *
+	 * @param type Element type.
+	 * @param size Element count.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void beginList(NBTTagType type, int size) throws IOException {
+		checkList(type, size);
+		element(NBTTagType.LIST);
+		list(type, size);
+	}
+
+	/**
+	 * End the current compound or list tag.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void end() throws IOException {
+		Frame frame = frames.peek();
+		if (frame == null) {
+			throw new IllegalStateException("No compound or list tag to end");
+		}
+		if (frame.remaining > 0) {
+			throw new IllegalStateException("List is missing " + frame.remaining + " element(s)");
+		}
+
+		if (frame.type == NBTTagType.COMPOUND) {
+			output.writeByte(NBTTagType.END.getId());
+		}
+		frames.pop();
+		sync();
+	}
+
+	/**
+	 * Write a tag to the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param tag Target tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeTag(String key, INBTTag<?> tag) throws IOException {
+		// Preconditions
+		if (tag == null) {
+			throw new NullPointerException("Tag cannot be null");
+		}
+
+		key(key, tag.getType());
+		tag.write(output);
+		sync();
+	}
+
+	/**
+	 * Write a tag to the current list tag.
+	 *
+	 * @param tag Target tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeTag(INBTTag<?> tag) throws IOException {
+		// Preconditions
+		if (tag == null) {
+			throw new NullPointerException("Tag cannot be null");
+		}
+
+		element(tag.getType());
+		tag.write(output);
+		sync();
+	}
+
+	/**
+	 * Write a byte tag to the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeByte(String key, byte value) throws IOException {
+		key(key, NBTTagType.BYTE);
+		output.writeByte(value);
+		sync();
+	}
+
+	/**
+	 * Write a byte tag to the current list tag.
+	 *
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeByte(byte value) throws IOException {
+		element(NBTTagType.BYTE);
+		output.writeByte(value);
+		sync();
+	}
+
+	/**
+	 * Write a short tag to the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeShort(String key, short value) throws IOException {
+		key(key, NBTTagType.SHORT);
+		output.writeShort(value);
+		sync();
+	}
+
+	/**
+	 * Write a short tag to the current list tag.
+	 *
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeShort(short value) throws IOException {
+		element(NBTTagType.SHORT);
+		output.writeShort(value);
+		sync();
+	}
+
+	/**
+	 * Write an integer tag to the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeInt(String key, int value) throws IOException {
+		key(key, NBTTagType.INT);
+		output.writeInt(value);
+		sync();
+	}
+
+	/**
+	 * Write an integer tag to the current list tag.
+	 *
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeInt(int value) throws IOException {
+		element(NBTTagType.INT);
+		output.writeInt(value);
+		sync();
+	}
+
+	/**
+	 * Write a long tag to the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeLong(String key, long value) throws IOException {
+		key(key, NBTTagType.LONG);
+		output.writeLong(value);
+		sync();
+	}
+
+	/**
+	 * Write a long tag to the current list tag.
+	 *
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeLong(long value) throws IOException {
+		element(NBTTagType.LONG);
+		output.writeLong(value);
+		sync();
+	}
+
+	/**
+	 * Write a float tag to the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeFloat(String key, float value) throws IOException {
+		key(key, NBTTagType.FLOAT);
+		output.writeFloat(value);
+		sync();
+	}
+
+	/**
+	 * Write a float tag to the current list tag.
+	 *
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeFloat(float value) throws IOException {
+		element(NBTTagType.FLOAT);
+		output.writeFloat(value);
+		sync();
+	}
+
+	/**
+	 * Write a double tag to the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeDouble(String key, double value) throws IOException {
+		key(key, NBTTagType.DOUBLE);
+		output.writeDouble(value);
+		sync();
+	}
+
+	/**
+	 * Write a double tag to the current list tag.
+	 *
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeDouble(double value) throws IOException {
+		element(NBTTagType.DOUBLE);
+		output.writeDouble(value);
+		sync();
+	}
+
+	/**
+	 * Write a string tag to the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeString(String key, String value) throws IOException {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		key(key, NBTTagType.STRING);
+		stringPayload(value);
+		sync();
+	}
+
+	/**
+	 * Write a string tag to the current list tag.
+	 *
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeString(String value) throws IOException {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		element(NBTTagType.STRING);
+		stringPayload(value);
+		sync();
+	}
+
+	/**
+	 * Write a byte array tag to the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeByteArray(String key, byte[] value) throws IOException {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		key(key, NBTTagType.BYTE_ARRAY);
+		byteArrayPayload(value);
+		sync();
+	}
+
+	/**
+	 * Write a byte array tag to the current list tag.
+	 *
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeByteArray(byte[] value) throws IOException {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		element(NBTTagType.BYTE_ARRAY);
+		byteArrayPayload(value);
+		sync();
+	}
+
+	/**
+	 * Write an integer array tag to the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeIntArray(String key, int[] value) throws IOException {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		key(key, NBTTagType.INT_ARRAY);
+		intArrayPayload(value);
+		sync();
+	}
+
+	/**
+	 * Write an integer array tag to the current list tag.
+	 *
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeIntArray(int[] value) throws IOException {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		element(NBTTagType.INT_ARRAY);
+		intArrayPayload(value);
+		sync();
+	}
+
+	/**
+	 * Write a long array tag to the current compound tag.
+	 *
+	 * @param key Tag name.
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeLongArray(String key, long[] value) throws IOException {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		key(key, NBTTagType.LONG_ARRAY);
+		longArrayPayload(value);
+		sync();
+	}
+
+	/**
+	 * Write a long array tag to the current list tag.
+	 *
+	 * @param value Tag value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeLongArray(long[] value) throws IOException {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		element(NBTTagType.LONG_ARRAY);
+		longArrayPayload(value);
+		sync();
+	}
+
+	/**
+	 * Write the header of a compound entry.
+	 *
+	 * @param key Entry key.
+	 * @param type Entry type.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void key(String key, NBTTagType type) throws IOException {
+		// Preconditions
+		if (key == null) {
+			throw new NullPointerException("Key cannot be null");
+		}
+		if (type == NBTTagType.END) {
+			throw new IllegalArgumentException("Cannot write a tag of type " + type.getName());
+		}
+		Frame frame = frames.peek();
+		if (frame == null || frame.type != NBTTagType.COMPOUND) {
+			throw new IllegalStateException("Not inside a compound tag");
+		}
+
+		output.writeByte(type.getId());
+		NBTIOUtil.writeUTF(output, key);
+	}
+
+	/**
+	 * Claim a list element.
+	 *
+	 * @param type Element type.
+	 */
+	private void element(NBTTagType type) {
+		// Preconditions
+		if (type == NBTTagType.END) {
+			throw new IllegalArgumentException("Cannot write a tag of type " + type.getName());
+		}
+		Frame frame = frames.peek();
+		if (frame == null || frame.type != NBTTagType.LIST) {
+			throw new IllegalStateException("Not inside a list tag");
+		}
+		if (frame.remaining == 0) {
+			throw new IllegalStateException("List has no elements remaining");
+		}
+		if (frame.elementType != type) {
+			throw new IllegalStateException("Expected element of type " + frame.elementType.getName() + " but got " + type.getName());
+		}
+
+		frame.remaining--;
+	}
+
+	/**
+	 * Check list header arguments.
+	 *
+	 * @param type Element type.
+	 * @param size Element count.
+	 */
+	private void checkList(NBTTagType type, int size) {
+		// Preconditions
+		if (type == null) {
+			throw new NullPointerException("Type cannot be null");
+		}
+		if (size < 0) {
+			throw new IllegalArgumentException("Size cannot be negative");
+		}
+		if (type == NBTTagType.END && size > 0) {
+			throw new IllegalArgumentException("Non-empty list cannot be of type " + type.getName());
+		}
+	}
+
+	/**
+	 * Write a list header.
+	 *
+	 * @param type Element type.
+	 * @param size Element count.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void list(NBTTagType type, int size) throws IOException {
+		output.writeByte(size == 0 ? NBTTagType.END.getId() : type.getId());
+		output.writeInt(size);
+		frames.push(new Frame(NBTTagType.LIST, type, size));
+		sync();
+	}
+
+	/**
+	 * Write a string payload.
+	 *
+	 * @param value Target value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void stringPayload(String value) throws IOException {
+		NBTIOUtil.writeUTF(output, value);
+	}
+
+	/**
+	 * Write a byte array payload.
+	 *
+	 * @param value Target value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void byteArrayPayload(byte[] value) throws IOException {
+		output.writeInt(value.length);
+		output.write(value);
+	}
+
+	/**
+	 * Write an integer array payload.
+	 *
+	 * @param value Target value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void intArrayPayload(int[] value) throws IOException {
+		output.writeInt(value.length);
+		NBTIOUtil.writeIntArray(output, value);
+	}
+
+	/**
+	 * Write a long array payload.
+	 *
+	 * @param value Target value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void longArrayPayload(long[] value) throws IOException {
+		output.writeInt(value.length);
+		NBTIOUtil.writeLongArray(output, value);
+	}
+
+	/**
+	 * Advance the buffer position if writing to a buffer.
+	 */
+	private void sync() {
+		if (buffer != null) {
+			buffer.position(((ByteBufferDataOutput) output).getPosition());
+		}
+	}
+
+	/**
+	 * An open compound or list tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Frame {
+
+		private final NBTTagType type;
+		private final NBTTagType elementType;
+		private int remaining;
+
+		private Frame(NBTTagType type, NBTTagType elementType, int remaining) {
+			this.type = type;
+			this.elementType = elementType;
+			this.remaining = remaining;
+		}
+	}
+}
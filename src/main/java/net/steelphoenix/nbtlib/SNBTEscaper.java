@@ -0,0 +1,148 @@
+package net.steelphoenix.nbtlib;
+
+import java.io.IOException;
+
+/**
+ * Utilities for writing keys and strings in stringified NBT.
+ *
+ * @author SteelPhoenix
+ */
+public class SNBTEscaper {
+
+	// Characters allowed in unquoted keys and strings
+	private static final boolean[] SIMPLE = new boolean[128];
+	// Verdicts for recently seen key instances, keys are compared by identity as keys are mostly shared
+	private static final Verdict[] VERDICTS = new Verdict[1024];
+
+	static {
+		for (char c = 'A'; c <= 'Z'; c++) {
+			SIMPLE[c] = true;
+		}
+		for (char c = 'a'; c <= 'z'; c++) {
+			SIMPLE[c] = true;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			SIMPLE[c] = true;
+		}
+		SIMPLE['.'] = true;
+		SIMPLE['_'] = true;
+		SIMPLE['+'] = true;
+		SIMPLE['-'] = true;
+	}
+
+	private SNBTEscaper() {
+		// Nothing
+	}
+
+	/**
+	 * Check if a character can be used in unquoted keys and strings.
+	 *
+	 * @param c Target character.
+	 * @return if the character is simple.
+	 */
+	public static boolean isSimple(char c) {
+		return c < 128 && SIMPLE[c];
+	}
+
+	/**
+	 * Check if a key can be written without quotes.
+	 *
+	 * @param key Target key.
+	 * @return if the key is simple.
+	 */
+	public static boolean isSimple(String key) {
+		// Preconditions
+		if (key == null) {
+			throw new NullPointerException("Key cannot be null");
+		}
+
+		// Note that the verdict fields are final so reading a racy slot is safe
+		int index = key.hashCode() & (VERDICTS.length - 1);
+		Verdict verdict = VERDICTS[index];
+		if (verdict != null && verdict.key == key) {
+			return verdict.simple;
+		}
+
+		boolean simple = !key.isEmpty();
+		for (int i = 0; simple && i < key.length(); i++) {
+			simple = isSimple(key.charAt(i));
+		}
+		VERDICTS[index] = new Verdict(key, simple);
+		return simple;
+	}
+
+	/**
+	 * Write a key, quoting it only if needed.
+	 *
+	 * @param output Target output.
+	 * @param key Target key.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void writeKey(Appendable output, String key) throws IOException {
+		if (isSimple(key)) {
+			output.append(key);
+		}
+		else {
+			writeQuoted(output, key);
+		}
+	}
+
+	/**
+	 * Write a quoted string.
+	 * Double quotes are used unless the first quote in the string is a double quote.
+	 *
+	 * @param output Target output.
+	 * @param string Target string.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void writeQuoted(Appendable output, String string) throws IOException {
+		// Preconditions
+		if (output == null) {
+			throw new NullPointerException("Output cannot be null");
+		}
+		if (string == null) {
+			throw new NullPointerException("String cannot be null");
+		}
+
+		// Pick the quote needing the fewest escapes in the common case
+		char quote = '\"';
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c == '\"' || c == '\'') {
+				quote = c == '\"' ? '\'' : '\"';
+				break;
+			}
+		}
+
+		output.append(quote);
+		int start = 0;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c == '\\' || c == quote) {
+				output
+						.append(string, start, i)
+						.append('\\');
+				start = i;
+			}
+		}
+		output
+				.append(string, start, string.length())
+				.append(quote);
+	}
+
+	/**
+	 * A cached verdict.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Verdict {
+
+		private final String key;
+		private final boolean simple;
+
+		private Verdict(String key, boolean simple) {
+			this.key = key;
+			this.simple = simple;
+		}
+	}
+}
@@ -0,0 +1,373 @@
+package net.steelphoenix.nbtlib;
+
+import net.steelphoenix.nbtlib.tag.NBTTagByte;
+import net.steelphoenix.nbtlib.tag.NBTTagDouble;
+import net.steelphoenix.nbtlib.tag.NBTTagFloat;
+import net.steelphoenix.nbtlib.tag.NBTTagInt;
+import net.steelphoenix.nbtlib.tag.NBTTagLong;
+import net.steelphoenix.nbtlib.tag.NBTTagShort;
+
+/**
+ * Recognizes numeric literals in stringified NBT.
+ * Literals are matched the same way Minecraft matches them, in a single pass over the characters without exceptions:
+ * <ul>
+ * <li>Byte, short, long: {@code [-+]?(0|[1-9][0-9]*)} followed by {@code b}, {@code s} or {@code l}</li>
+ * <li>Int: {@code [-+]?(0|[1-9][0-9]*)}</li>
+ * <li>Float, double: {@code [-+]?([0-9]+[.]?|[0-9]*[.][0-9]+)(e[-+]?[0-9]+)?} followed by {@code f} or {@code d}</li>
+ * <li>Double without suffix: {@code [-+]?([0-9]+[.]|[0-9]*[.][0-9]+)(e[-+]?[0-9]+)?}</li>
+ * </ul>
+ * Matching is case insensitive. Integers that are out of range for their type are not numbers.
+ * Unlike Minecraft, {@code NaN} and {@code Infinity} followed by a float or double suffix are numbers so written values can be read back.
+ *
+ * @author SteelPhoenix
+ */
+class SNBTNumbers {
+
+	// Character classes
+	private static final int OTHER = 0;
+	private static final int ZERO = 1;
+	private static final int DIGIT = 2;
+	private static final int SIGN = 3;
+	private static final int DOT = 4;
+	private static final int EXPONENT = 5;
+	private static final int BYTE_SUFFIX = 6;
+	private static final int SHORT_SUFFIX = 7;
+	private static final int LONG_SUFFIX = 8;
+	private static final int FLOAT_SUFFIX = 9;
+	private static final int DOUBLE_SUFFIX = 10;
+	private static final int CLASSES = 11;
+
+	// States
+	private static final int DEAD = -1;
+	private static final int START = 0;
+	private static final int SIGNED = 1;
+	// A single zero, the only integer allowed to start with zero
+	private static final int INTEGER_ZERO = 2;
+	private static final int INTEGER = 3;
+	// Digits with a leading zero, only allowed for floating point numbers
+	private static final int LEADING_ZERO = 4;
+	// A dot without digits before it
+	private static final int EMPTY_DOT = 5;
+	private static final int FRACTION = 6;
+	private static final int EXPONENT_START = 7;
+	private static final int EXPONENT_SIGNED = 8;
+	private static final int EXPONENT_DIGITS = 9;
+	// An exponent without a dot, only allowed with a suffix
+	private static final int INT_EXPONENT_START = 10;
+	private static final int INT_EXPONENT_SIGNED = 11;
+	private static final int INT_EXPONENT_DIGITS = 12;
+	private static final int BYTE = 13;
+	private static final int SHORT = 14;
+	private static final int LONG = 15;
+	private static final int FLOAT = 16;
+	private static final int DOUBLE = 17;
+	private static final int STATES = 18;
+
+	private static final byte[] CLASS = new byte[128];
+	private static final int[][] TRANSITIONS = new int[STATES][CLASSES];
+	// Powers of ten that are exactly representable
+	private static final double[] DOUBLE_POWERS = new double[23];
+	private static final float[] FLOAT_POWERS = new float[11];
+
+	static {
+		CLASS['0'] = ZERO;
+		for (char c = '1'; c <= '9'; c++) {
+			CLASS[c] = DIGIT;
+		}
+		CLASS['+'] = SIGN;
+		CLASS['-'] = SIGN;
+		CLASS['.'] = DOT;
+		setClass('e', EXPONENT);
+		setClass('b', BYTE_SUFFIX);
+		setClass('s', SHORT_SUFFIX);
+		setClass('l', LONG_SUFFIX);
+		setClass('f', FLOAT_SUFFIX);
+		setClass('d', DOUBLE_SUFFIX);
+
+		for (int[] transitions : TRANSITIONS) {
+			for (int i = 0; i < transitions.length; i++) {
+				transitions[i] = DEAD;
+			}
+		}
+		setDigits(START, INTEGER_ZERO, INTEGER);
+		setDigits(SIGNED, INTEGER_ZERO, INTEGER);
+		setDigits(INTEGER_ZERO, LEADING_ZERO, LEADING_ZERO);
+		setDigits(INTEGER, INTEGER, INTEGER);
+		setDigits(LEADING_ZERO, LEADING_ZERO, LEADING_ZERO);
+		setDigits(EMPTY_DOT, FRACTION, FRACTION);
+		setDigits(FRACTION, FRACTION, FRACTION);
+		setDigits(EXPONENT_START, EXPONENT_DIGITS, EXPONENT_DIGITS);
+		setDigits(EXPONENT_SIGNED, EXPONENT_DIGITS, EXPONENT_DIGITS);
+		setDigits(EXPONENT_DIGITS, EXPONENT_DIGITS, EXPONENT_DIGITS);
+		setDigits(INT_EXPONENT_START, INT_EXPONENT_DIGITS, INT_EXPONENT_DIGITS);
+		setDigits(INT_EXPONENT_SIGNED, INT_EXPONENT_DIGITS, INT_EXPONENT_DIGITS);
+		setDigits(INT_EXPONENT_DIGITS, INT_EXPONENT_DIGITS, INT_EXPONENT_DIGITS);
+		TRANSITIONS[START][SIGN] = SIGNED;
+		TRANSITIONS[START][DOT] = EMPTY_DOT;
+		TRANSITIONS[SIGNED][DOT] = EMPTY_DOT;
+		TRANSITIONS[EXPONENT_START][SIGN] = EXPONENT_SIGNED;
+		TRANSITIONS[INT_EXPONENT_START][SIGN] = INT_EXPONENT_SIGNED;
+		for (int state : new int[] { INTEGER_ZERO, INTEGER }) {
+			TRANSITIONS[state][BYTE_SUFFIX] = BYTE;
+			TRANSITIONS[state][SHORT_SUFFIX] = SHORT;
+			TRANSITIONS[state][LONG_SUFFIX] = LONG;
+		}
+		for (int state : new int[] { INTEGER_ZERO, INTEGER, LEADING_ZERO }) {
+			TRANSITIONS[state][DOT] = FRACTION;
+			TRANSITIONS[state][EXPONENT] = INT_EXPONENT_START;
+		}
+		TRANSITIONS[FRACTION][EXPONENT] = EXPONENT_START;
+		for (int state : new int[] { INTEGER_ZERO, INTEGER, LEADING_ZERO, FRACTION, EXPONENT_DIGITS, INT_EXPONENT_DIGITS }) {
+			TRANSITIONS[state][FLOAT_SUFFIX] = FLOAT;
+			TRANSITIONS[state][DOUBLE_SUFFIX] = DOUBLE;
+		}
+
+		DOUBLE_POWERS[0] = 1.0D;
+		for (int i = 1; i < DOUBLE_POWERS.length; i++) {
+			DOUBLE_POWERS[i] = DOUBLE_POWERS[i - 1] * 10.0D;
+		}
+		FLOAT_POWERS[0] = 1.0F;
+		for (int i = 1; i < FLOAT_POWERS.length; i++) {
+			FLOAT_POWERS[i] = FLOAT_POWERS[i - 1] * 10.0F;
+		}
+	}
+
+	private SNBTNumbers() {
+		// Nothing
+	}
+
+	/**
+	 * Set the class of a letter for both cases.
+	 *
+	 * @param c Target lower case letter.
+	 * @param type Target class.
+	 */
+	private static void setClass(char c, int type) {
+		CLASS[c] = (byte) type;
+		CLASS[Character.toUpperCase(c)] = (byte) type;
+	}
+
+	/**
+	 * Set the digit transitions of a state.
+	 *
+	 * @param state Target state.
+	 * @param zero State after a zero.
+	 * @param digit State after any other digit.
+	 */
+	private static void setDigits(int state, int zero, int digit) {
+		TRANSITIONS[state][ZERO] = zero;
+		TRANSITIONS[state][DIGIT] = digit;
+	}
+
+	/**
+	 * Parse a numeric literal.
+	 *
+	 * @param lexer Source lexer.
+	 * @param start Literal start index, inclusive.
+	 * @param end Literal end index, exclusive.
+	 * @param shared If numeric tags are shared.
+	 * @return the numeric tag or null if the literal is not a number.
+	 */
+	static INBTTag<?> parse(Lexer lexer, int start, int end, boolean shared) {
+		// Preconditions
+		if (lexer == null) {
+			throw new NullPointerException("Lexer cannot be null");
+		}
+
+		// The mantissa is accumulated negatively so Long.MIN_VALUE fits
+		int state = START;
+		boolean negative = false;
+		long mantissa = 0L;
+		boolean overflow = false;
+		int scale = 0;
+		boolean negativeExponent = false;
+		int exponent = 0;
+		for (int i = start; i < end; i++) {
+			char c = lexer.charAt(i);
+			int type = c < 128 ? CLASS[c] : OTHER;
+			int next = TRANSITIONS[state][type];
+			if (next == DEAD) {
+				return state == START || state == SIGNED ? parseSpecial(lexer, start, end) : null;
+			}
+
+			if (type == ZERO || type == DIGIT) {
+				int digit = c - '0';
+				if (next == EXPONENT_DIGITS || next == INT_EXPONENT_DIGITS) {
+					// Anything past this over- or underflows any float or double
+					exponent = Math.min(exponent * 10 + digit, 100000);
+				}
+				else if (overflow || mantissa < (Long.MIN_VALUE + digit) / 10L) {
+					overflow = true;
+				}
+				else {
+					mantissa = mantissa * 10L - digit;
+					if (next == FRACTION) {
+						scale++;
+					}
+				}
+			}
+			else if (type == SIGN) {
+				if (state == START) {
+					negative = c == '-';
+				}
+				else {
+					negativeExponent = c == '-';
+				}
+			}
+			state = next;
+		}
+
+		// Integers that do not fit in a long are not numbers
+		boolean integer = state == INTEGER_ZERO || state == INTEGER || state == BYTE || state == SHORT || state == LONG;
+		if (integer && (overflow || !negative && mantissa == Long.MIN_VALUE)) {
+			return null;
+		}
+		long value = negative ? mantissa : -mantissa;
+
+		switch (state) {
+			case INTEGER_ZERO:
+			case INTEGER:
+				if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+					return null;
+				}
+				return shared ? NBTTagInt.valueOf((int) value) : new NBTTagInt((int) value);
+			case BYTE:
+				if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+					return null;
+				}
+				return shared ? NBTTagByte.valueOf((byte) value) : new NBTTagByte((byte) value);
+			case SHORT:
+				if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+					return null;
+				}
+				return shared ? NBTTagShort.valueOf((short) value) : new NBTTagShort((short) value);
+			case LONG:
+				return shared ? NBTTagLong.valueOf(value) : new NBTTagLong(value);
+			case FLOAT:
+				return new NBTTagFloat(toFloat(lexer, start, end - 1, negative, mantissa, overflow, toExponent(negativeExponent, exponent, scale)));
+			case FRACTION:
+			case EXPONENT_DIGITS:
+				return new NBTTagDouble(toDouble(lexer, start, end, negative, mantissa, overflow, toExponent(negativeExponent, exponent, scale)));
+			case DOUBLE:
+				return new NBTTagDouble(toDouble(lexer, start, end - 1, negative, mantissa, overflow, toExponent(negativeExponent, exponent, scale)));
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Parse a float or double literal that is not a finite number.
+	 *
+	 * @param lexer Source lexer.
+	 * @param start Literal start index, inclusive.
+	 * @param end Literal end index, exclusive.
+	 * @return the numeric tag or null if the literal is not a number.
+	 */
+	private static INBTTag<?> parseSpecial(Lexer lexer, int start, int end) {
+		int i = start;
+		char c = lexer.charAt(i);
+		boolean negative = c == '-';
+		if (c == '-' || c == '+') {
+			i++;
+		}
+
+		double value;
+		if (matches(lexer, i, end - 1, "NaN")) {
+			value = Double.NaN;
+		}
+		else if (matches(lexer, i, end - 1, "Infinity")) {
+			value = negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		}
+		else {
+			return null;
+		}
+
+		char suffix = lexer.charAt(end - 1);
+		if (suffix == 'f' || suffix == 'F') {
+			return new NBTTagFloat((float) value);
+		}
+		if (suffix == 'd' || suffix == 'D') {
+			return new NBTTagDouble(value);
+		}
+		return null;
+	}
+
+	/**
+	 * Check if a part of the lexer string is equal to a given string.
+	 *
+	 * @param lexer Source lexer.
+	 * @param start Start index, inclusive.
+	 * @param end End index, exclusive.
+	 * @param string Target string.
+	 * @return if the part is equal.
+	 */
+	private static boolean matches(Lexer lexer, int start, int end, String string) {
+		if (end - start != string.length()) {
+			return false;
+		}
+		for (int i = 0; i < string.length(); i++) {
+			if (lexer.charAt(start + i) != string.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Get the decimal exponent to apply to the mantissa.
+	 *
+	 * @param negative If the written exponent is negative.
+	 * @param exponent Written exponent magnitude.
+	 * @param scale Number of fraction digits in the mantissa.
+	 * @return the decimal exponent.
+	 */
+	private static int toExponent(boolean negative, int exponent, int scale) {
+		return (negative ? -exponent : exponent) - scale;
+	}
+
+	/**
+	 * Get the value of a float literal.
+	 * Values that cannot be computed exactly fall back on {@link Float#parseFloat(String)}.
+	 *
+	 * @param lexer Source lexer.
+	 * @param start Literal start index, inclusive.
+	 * @param end Literal end index without suffix, exclusive.
+	 * @param negative If the literal is negative.
+	 * @param mantissa Negated mantissa.
+	 * @param overflow If the mantissa did not fit.
+	 * @param exponent Decimal exponent.
+	 * @return the value.
+	 */
+	private static float toFloat(Lexer lexer, int start, int end, boolean negative, long mantissa, boolean overflow, int exponent) {
+		// Both the mantissa and the power of ten are exact so the result is rounded once
+		if (!overflow && mantissa >= -(1L << 24) && exponent > -FLOAT_POWERS.length && exponent < FLOAT_POWERS.length) {
+			float value = -mantissa;
+			value = exponent < 0 ? value / FLOAT_POWERS[-exponent] : value * FLOAT_POWERS[exponent];
+			return negative ? -value : value;
+		}
+		return Float.parseFloat(lexer.getString(start, end));
+	}
+
+	/**
+	 * Get the value of a double literal.
+	 * Values that cannot be computed exactly fall back on {@link Double#parseDouble(String)}.
+	 *
+	 * @param lexer Source lexer.
+	 * @param start Literal start index, inclusive.
+	 * @param end Literal end index without suffix, exclusive.
+	 * @param negative If the literal is negative.
+	 * @param mantissa Negated mantissa.
+	 * @param overflow If the mantissa did not fit.
+	 * @param exponent Decimal exponent.
+	 * @return the value.
+	 */
+	private static double toDouble(Lexer lexer, int start, int end, boolean negative, long mantissa, boolean overflow, int exponent) {
+		// Both the mantissa and the power of ten are exact so the result is rounded once
+		if (!overflow && mantissa >= -(1L << 53) && exponent > -DOUBLE_POWERS.length && exponent < DOUBLE_POWERS.length) {
+			double value = -mantissa;
+			value = exponent < 0 ? value / DOUBLE_POWERS[-exponent] : value * DOUBLE_POWERS[exponent];
+			return negative ? -value : value;
+		}
+		return Double.parseDouble(lexer.getString(start, end));
+	}
+}
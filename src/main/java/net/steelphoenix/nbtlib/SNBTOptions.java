@@ -0,0 +1,115 @@
+package net.steelphoenix.nbtlib;
+
+/**
+ * Options for writing stringified NBT.
+ * By default output is pretty with tab indents and the system line separator.
+ *
+ * @author SteelPhoenix
+ */
+public class SNBTOptions {
+
+	public static final SNBTOptions PRETTY = new ImmutableSNBTOptions(false);
+	public static final SNBTOptions COMPACT = new ImmutableSNBTOptions(true);
+	private boolean compact;
+	private String indent = "\t";
+	private String lineSeparator = System.lineSeparator();
+
+	public SNBTOptions() {
+		this(false);
+	}
+
+	private SNBTOptions(boolean compact) {
+		this.compact = compact;
+	}
+
+	/**
+	 * Get if output is written on a single line without extra whitespace.
+	 *
+	 * @return if output is compact.
+	 */
+	public boolean isCompact() {
+		return compact;
+	}
+
+	/**
+	 * Set if output is written on a single line without extra whitespace.
+	 *
+	 * @param compact If output is compact.
+	 */
+	public void setCompact(boolean compact) {
+		this.compact = compact;
+	}
+
+	/**
+	 * Get the string written once per nesting level at the start of a line.
+	 *
+	 * @return the indent.
+	 */
+	public String getIndent() {
+		return indent;
+	}
+
+	/**
+	 * Set the string written once per nesting level at the start of a line.
+	 *
+	 * @param indent Target indent.
+	 */
+	public void setIndent(String indent) {
+		// Preconditions
+		if (indent == null) {
+			throw new NullPointerException("Indent cannot be null");
+		}
+
+		this.indent = indent;
+	}
+
+	/**
+	 * Get the line separator.
+	 *
+	 * @return the line separator.
+	 */
+	public String getLineSeparator() {
+		return lineSeparator;
+	}
+
+	/**
+	 * Set the line separator.
+	 *
+	 * @param lineSeparator Target line separator.
+	 */
+	public void setLineSeparator(String lineSeparator) {
+		// Preconditions
+		if (lineSeparator == null) {
+			throw new NullPointerException("Line separator cannot be null");
+		}
+
+		this.lineSeparator = lineSeparator;
+	}
+
+	/**
+	 * The shared default options.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class ImmutableSNBTOptions extends SNBTOptions {
+
+		private ImmutableSNBTOptions(boolean compact) {
+			super(compact);
+		}
+
+		@Override
+		public void setCompact(boolean compact) {
+			throw new UnsupportedOperationException("Cannot change the default options");
+		}
+
+		@Override
+		public void setIndent(String indent) {
+			throw new UnsupportedOperationException("Cannot change the default options");
+		}
+
+		@Override
+		public void setLineSeparator(String lineSeparator) {
+			throw new UnsupportedOperationException("Cannot change the default options");
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package net.steelphoenix.nbtlib;
+
+/**
+ * The cached serialized size of a compound or list tag.
+ * Tags are linked to the cache of the container that last counted them, so a change clears every cache above it.
+ * Note that this only links caches to keep tags that are handed out from holding on to their containers.
+ *
+ * @author SteelPhoenix
+ */
+final class SizeCache {
+
+	// Serialized size or -1 if unknown
+	private long size = -1L;
+	// Cache of the container that last counted the tag or null
+	private SizeCache parent;
+
+	/**
+	 * Get the cached size.
+	 *
+	 * @return the cached size or -1 if unknown.
+	 */
+	long getSize() {
+		return size;
+	}
+
+	/**
+	 * Set the cached size and link the tags counted for it, so changing them clears this cache.
+	 * Note that this is ignored if a tag cannot report its changes.
+	 *
+	 * @param size Target size.
+	 * @param tags Counted tags.
+	 */
+	void setSize(long size, Iterable<? extends INBTTag<?>> tags) {
+		for (INBTTag<?> tag : tags) {
+			if (!link(tag)) {
+				return;
+			}
+		}
+
+		// Linking clears the cache a tag reported to before, which is below this one if the tag is held twice
+		for (INBTTag<?> tag : tags) {
+			if (tag instanceof AbstractNBTTag && !((AbstractNBTTag<?>) tag).isSizeTracked()) {
+				return;
+			}
+		}
+		this.size = size;
+	}
+
+	/**
+	 * Copy the cached size of another cache.
+	 * Note that this does not link anything, the tags counted for it still report to the other cache.
+	 *
+	 * @param cache Target cache.
+	 */
+	void copySize(SizeCache cache) {
+		size = cache.size;
+	}
+
+	/**
+	 * Get the cache of the container that last counted the tag.
+	 *
+	 * @return the parent cache or null.
+	 */
+	SizeCache getParent() {
+		return parent;
+	}
+
+	/**
+	 * Set the cache of the container that last counted the tag.
+	 *
+	 * @param parent Target cache.
+	 */
+	void setParent(SizeCache parent) {
+		this.parent = parent;
+	}
+
+	/**
+	 * Clear this cache and every cache above it.
+	 */
+	void clear() {
+		// A container only caches its size while its children do, so the caches above an unknown size are unknown as well
+		for (SizeCache cache = this; cache != null && cache.size >= 0L; cache = cache.parent) {
+			cache.size = -1L;
+		}
+	}
+
+	/**
+	 * Link a tag to this cache.
+	 * Note that a tag only reports to one container, so the cache it reported to before is cleared.
+	 *
+	 * @param tag Target tag.
+	 * @return if changes to the tag are reported.
+	 */
+	private boolean link(INBTTag<?> tag) {
+		if (tag == null) {
+			return false;
+		}
+
+		// The size of these cannot change
+		if (tag instanceof INumericNBTTag || tag.getType() == NBTTagType.END) {
+			return true;
+		}
+
+		// Other tags may change without notice
+		if (!(tag instanceof AbstractNBTTag)) {
+			return false;
+		}
+
+		AbstractNBTTag<?> child = (AbstractNBTTag<?>) tag;
+		SizeCache previous = child.getParentCache();
+		if (previous != this) {
+			if (previous != null) {
+				previous.clear();
+			}
+			child.setParentCache(this);
+		}
+		return true;
+	}
+}
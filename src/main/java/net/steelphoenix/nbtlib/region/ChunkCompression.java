@@ -0,0 +1,70 @@
+package net.steelphoenix.nbtlib.region;
+
+import net.steelphoenix.nbtlib.NBTCompression;
+import net.steelphoenix.nbtlib.NBTCompressions;
+
+/**
+ * Region chunk compression types.
+ *
+ * @author SteelPhoenix
+ */
+public enum ChunkCompression {
+
+	/**
+	 * GZIP, not used by Minecraft itself
+	 */
+	GZIP ((byte) 1, NBTCompressions.GZIP),
+
+	/**
+	 * Zlib, used by Minecraft by default
+	 */
+	ZLIB ((byte) 2, NBTCompressions.ZLIB),
+
+	/**
+	 * Uncompressed
+	 */
+	NONE ((byte) 3, NBTCompressions.NONE);
+
+	private static final ChunkCompression[] BY_ID = new ChunkCompression[256];
+	private final byte id;
+	private final NBTCompression compression;
+
+	static {
+		for (ChunkCompression compression : values()) {
+			BY_ID[compression.getId() & 0xFF] = compression;
+		}
+	}
+
+	private ChunkCompression(byte id, NBTCompression compression) {
+		this.id = id;
+		this.compression = compression;
+	}
+
+	/**
+	 * Get the id used in region files.
+	 *
+	 * @return the id.
+	 */
+	public byte getId() {
+		return id;
+	}
+
+	/**
+	 * Get the compression format.
+	 *
+	 * @return the format.
+	 */
+	public NBTCompression getCompression() {
+		return compression;
+	}
+
+	/**
+	 * Get a compression type from id.
+	 *
+	 * @param id Target id.
+	 * @return the compression type or null if no type with the given id exists.
+	 */
+	public static ChunkCompression fromId(byte id) {
+		return BY_ID[id & 0xFF];
+	}
+}
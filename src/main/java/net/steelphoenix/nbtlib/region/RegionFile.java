@@ -0,0 +1,428 @@
+package net.steelphoenix.nbtlib.region;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.steelphoenix.nbtlib.MalformedNBTException;
+import net.steelphoenix.nbtlib.NBTReadOptions;
+import net.steelphoenix.nbtlib.NBTSizeLimiter;
+import net.steelphoenix.nbtlib.NBTUtil;
+import net.steelphoenix.nbtlib.tag.NBTTagCompound;
+
+/**
+ * An Anvil region file holding 32x32 chunks.
+ * Chunk coordinates are taken modulo 32 so both absolute and region local coordinates can be used.
+ * Reads do not lock and can run concurrently, writes are serialized.
+ * A read that overlaps a write returns either the old or the new data of the chunk.
+ *
+ * @author SteelPhoenix
+ */
+public class RegionFile implements Closeable {
+
+	public static final int SECTOR_SIZE = 4096;
+	private static final int CHUNK_COUNT = 1024;
+	// The header has a location table and a timestamp table
+	private static final int HEADER_SECTORS = 2;
+	// The sector count of a location is a single byte
+	private static final int MAX_CHUNK_SECTORS = 255;
+	private final Path path;
+	private final FileChannel channel;
+	private final boolean readOnly;
+	// Sector offset << 8 | sector count per chunk or 0 if absent
+	private final AtomicIntegerArray locations = new AtomicIntegerArray(CHUNK_COUNT);
+	private final AtomicIntegerArray timestamps = new AtomicIntegerArray(CHUNK_COUNT);
+	// Sectors in use, guarded by this
+	private final BitSet used = new BitSet();
+	// Incremented after sectors are freed, so readers can tell if the sectors they read may have been reused
+	private final AtomicLong frees = new AtomicLong();
+
+	/**
+	 * Open a region file for reading and writing, creating it if it does not exist.
+	 *
+	 * @param path Target file.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public RegionFile(Path path) throws IOException {
+		this(path, false);
+	}
+
+	/**
+	 * Open a region file.
+	 * The file is created if it does not exist and is not opened read-only.
+	 *
+	 * @param path Target file.
+	 * @param readOnly If the file is opened read-only.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public RegionFile(Path path, boolean readOnly) throws IOException {
+		// Preconditions
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+
+		this.path = path;
+		this.readOnly = readOnly;
+		this.channel = readOnly ? FileChannel.open(path, StandardOpenOption.READ) : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+		try {
+			readHeader();
+		} catch (IOException | RuntimeException exception) {
+			channel.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Get the file path.
+	 *
+	 * @return the path.
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Check if a chunk is present.
+	 *
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @return if the chunk is present.
+	 */
+	public boolean hasChunk(int x, int z) {
+		return locations.get(index(x, z)) != 0;
+	}
+
+	/**
+	 * Get the last time a chunk was written.
+	 *
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @return the epoch second or 0 if unknown.
+	 */
+	public int getTimestamp(int x, int z) {
+		return timestamps.get(index(x, z));
+	}
+
+	/**
+	 * Read a chunk.
+	 *
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @return the chunk tag or null if the chunk is not present.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public NBTTagCompound read(int x, int z) throws IOException {
+		return read(x, z, NBTSizeLimiter.UNLIMITED, NBTReadOptions.DEFAULT);
+	}
+
+	/**
+	 * Read a chunk.
+	 *
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @param limiter Size limiter.
+	 * @param options Read options.
+	 * @return the chunk tag or null if the chunk is not present.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public NBTTagCompound read(int x, int z, NBTSizeLimiter limiter, NBTReadOptions options) throws IOException {
+		ByteBuffer data = readData(x, z, limiter);
+		return data == null ? null : NBTUtil.read(data, limiter, options);
+	}
+
+	/**
+	 * Read the decompressed data of a chunk.
+	 * The returned buffer is not shared so it can be parsed lazily.
+	 *
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @return a heap buffer with the binary chunk tag or null if the chunk is not present.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public ByteBuffer readData(int x, int z) throws IOException {
+		return readData(x, z, NBTSizeLimiter.UNLIMITED);
+	}
+
+	/**
+	 * Read the decompressed data of a chunk.
+	 * The returned buffer is not shared so it can be parsed lazily.
+	 * Decompression stops as soon as the data is too large to be accepted by the limiter.
+	 * The read is retried if sectors were freed meanwhile, since they may have been reused for another chunk.
+	 *
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @param limiter Size limiter.
+	 * @return a heap buffer with the binary chunk tag or null if the chunk is not present.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public ByteBuffer readData(int x, int z, NBTSizeLimiter limiter) throws IOException {
+		// Preconditions
+		if (limiter == null) {
+			throw new NullPointerException("Limiter cannot be null");
+		}
+
+		int index = index(x, z);
+		ByteBuffer buffer;
+		while (true) {
+			long generation = frees.get();
+			int location = locations.get(index);
+			if (location == 0) {
+				return null;
+			}
+
+			// Positional reads do not touch the channel position so no lock is needed
+			buffer = ByteBuffer.allocate((location & 0xFF) * SECTOR_SIZE);
+			long position = (long) (location >>> 8) * SECTOR_SIZE;
+			while (buffer.hasRemaining()) {
+				int read = channel.read(buffer, position + buffer.position());
+				if (read == -1) {
+					break;
+				}
+			}
+
+			// The sectors can only have been reused after being freed
+			if (frees.get() == generation) {
+				break;
+			}
+		}
+
+		if (buffer.position() < 5) {
+			throw new EOFException("Chunk data is truncated");
+		}
+		int length = buffer.getInt(0);
+		if (length <= 0 || length > buffer.position() - 4) {
+			throw new MalformedNBTException("Invalid chunk length: " + length);
+		}
+		byte id = buffer.get(4);
+		if ((id & 0x80) != 0) {
+			throw new IOException("Chunks stored in external files are not supported");
+		}
+		ChunkCompression compression = ChunkCompression.fromId(id);
+		if (compression == null) {
+			throw new MalformedNBTException("Unknown chunk compression type: " + id);
+		}
+		return compression.getCompression().decompress(buffer.array(), 5, length - 1, limiter.getMaxBinarySize());
+	}
+
+	/**
+	 * Write a chunk using zlib compression.
+	 *
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @param tag Target tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void write(int x, int z, NBTTagCompound tag) throws IOException {
+		write(x, z, tag, ChunkCompression.ZLIB);
+	}
+
+	/**
+	 * Write a chunk.
+	 * The tag is serialized and compressed before any lock is taken.
+	 *
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @param tag Target tag.
+	 * @param compression Compression type.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void write(int x, int z, NBTTagCompound tag, ChunkCompression compression) throws IOException {
+		// Preconditions
+		if (tag == null) {
+			throw new NullPointerException("Tag cannot be null");
+		}
+		if (compression == null) {
+			throw new NullPointerException("Compression cannot be null");
+		}
+		checkWritable();
+
+		long size = NBTUtil.serializedSize("", tag);
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IOException("Chunk is too large (" + size + " byte(s))");
+		}
+		ByteBuffer raw = ByteBuffer.allocate((int) size);
+		NBTUtil.write(raw, tag);
+		byte[] compressed = compression.getCompression().compress(raw.array(), 0, raw.position());
+
+		int sectors = (compressed.length + 5 + SECTOR_SIZE - 1) / SECTOR_SIZE;
+		if (sectors > MAX_CHUNK_SECTORS) {
+			throw new IOException("Chunk is too large (" + sectors + " sector(s))");
+		}
+
+		// Whole sectors are written so the file length stays a multiple of the sector size
+		ByteBuffer buffer = ByteBuffer.allocate(sectors * SECTOR_SIZE);
+		buffer.putInt(compressed.length + 1);
+		buffer.put(compression.getId());
+		buffer.put(compressed);
+		buffer.clear();
+
+		int index = index(x, z);
+		synchronized (this) {
+			int offset = allocate(sectors);
+			writeFully(buffer, (long) offset * SECTOR_SIZE);
+			setEntry(index, offset << 8 | sectors, (int) (System.currentTimeMillis() / 1000L));
+		}
+	}
+
+	/**
+	 * Delete a chunk.
+	 *
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void delete(int x, int z) throws IOException {
+		checkWritable();
+
+		int index = index(x, z);
+		synchronized (this) {
+			if (locations.get(index) != 0) {
+				setEntry(index, 0, 0);
+			}
+		}
+	}
+
+	/**
+	 * Force all written data to the storage device.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void flush() throws IOException {
+		channel.force(true);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Read the header and mark the sectors in use.
+	 * Entries pointing outside of the file are treated as absent.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void readHeader() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SECTORS * SECTOR_SIZE);
+		long size = channel.size();
+
+		// New or truncated file
+		if (size < header.capacity()) {
+			if (size > 0L) {
+				throw new MalformedNBTException("Region file header is truncated");
+			}
+			if (!readOnly) {
+				writeFully(header, 0L);
+			}
+		}
+		else {
+			while (header.hasRemaining() && channel.read(header, header.position()) != -1) {
+				// Nothing
+			}
+			header.clear();
+		}
+
+		used.set(0, HEADER_SECTORS);
+		long fileSectors = (Math.max(size, header.capacity()) + SECTOR_SIZE - 1) / SECTOR_SIZE;
+		for (int i = 0; i < CHUNK_COUNT; i++) {
+			int location = header.getInt(i * 4);
+			int offset = location >>> 8;
+			int count = location & 0xFF;
+			if (location == 0 || count == 0 || offset < HEADER_SECTORS || offset + count > fileSectors) {
+				continue;
+			}
+			locations.set(i, location);
+			timestamps.set(i, header.getInt(SECTOR_SIZE + i * 4));
+			used.set(offset, offset + count);
+		}
+	}
+
+	/**
+	 * Allocate a run of free sectors.
+	 * Note that this needs to be called while holding the lock.
+	 *
+	 * @param count Sector count.
+	 * @return the first sector.
+	 */
+	private int allocate(int count) {
+		int start = used.nextClearBit(HEADER_SECTORS);
+		while (true) {
+			int next = used.nextSetBit(start);
+			if (next == -1 || next - start >= count) {
+				break;
+			}
+			start = used.nextClearBit(next);
+		}
+		if (start > 0xFFFFFF - count) {
+			throw new IllegalStateException("Region file is full");
+		}
+		used.set(start, start + count);
+		return start;
+	}
+
+	/**
+	 * Set a header entry and free the sectors it used.
+	 * The sectors are only freed after the entry is replaced, so a reader that sees the old entry notices the reuse.
+	 * Note that this needs to be called while holding the lock.
+	 *
+	 * @param index Chunk index.
+	 * @param location New location.
+	 * @param timestamp New timestamp.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void setEntry(int index, int location, int timestamp) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(4);
+		writeFully(buffer.putInt(0, location), index * 4L);
+		buffer.clear();
+		writeFully(buffer.putInt(0, timestamp), SECTOR_SIZE + index * 4L);
+
+		int old = locations.getAndSet(index, location);
+		timestamps.set(index, timestamp);
+		if (old != 0) {
+			used.clear(old >>> 8, (old >>> 8) + (old & 0xFF));
+			// Readers that saw the old location read before this
+			frees.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Write a buffer completely.
+	 *
+	 * @param buffer Target buffer.
+	 * @param position File position.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeFully(ByteBuffer buffer, long position) throws IOException {
+		int start = buffer.position();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer, position + buffer.position() - start);
+		}
+	}
+
+	/**
+	 * Check if this file can be written to.
+	 */
+	private void checkWritable() {
+		if (readOnly) {
+			throw new IllegalStateException("Region file is opened read-only");
+		}
+	}
+
+	/**
+	 * Get the header index of a chunk.
+	 *
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @return the index.
+	 */
+	private static int index(int x, int z) {
+		return (x & 31) | (z & 31) << 5;
+	}
+}
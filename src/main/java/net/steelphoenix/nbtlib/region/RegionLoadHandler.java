@@ -0,0 +1,50 @@
+package net.steelphoenix.nbtlib.region;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import net.steelphoenix.nbtlib.tag.NBTTagCompound;
+
+/**
+ * A handler for chunks loaded by a {@link RegionLoader}.
+ * Callbacks are made one at a time on the thread that started loading.
+ * Chunk coordinates are region local.
+ *
+ * @author SteelPhoenix
+ */
+public interface RegionLoadHandler {
+
+	/**
+	 * Handle a loaded chunk.
+	 *
+	 * @param region Region file.
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @param tag Chunk tag.
+	 */
+	public void chunkLoaded(Path region, int x, int z, NBTTagCompound tag);
+
+	/**
+	 * Handle a chunk that could not be loaded.
+	 * Other chunks are still loaded.
+	 * Note that errors are not handled here, they stop loading and are rethrown on the calling thread.
+	 *
+	 * @param region Region file.
+	 * @param x Chunk x coordinate.
+	 * @param z Chunk z coordinate.
+	 * @param exception The cause.
+	 */
+	public void chunkFailed(Path region, int x, int z, Exception exception);
+
+	/**
+	 * Handle a region file that could not be opened.
+	 * By default this stops loading by throwing the exception, return normally to skip the region instead.
+	 *
+	 * @param region Region file.
+	 * @param exception The cause.
+	 * @throws IOException to stop loading.
+	 */
+	public default void regionFailed(Path region, IOException exception) throws IOException {
+		throw exception;
+	}
+}
@@ -0,0 +1,363 @@
+package net.steelphoenix.nbtlib.region;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+import net.steelphoenix.nbtlib.MalformedNBTException;
+import net.steelphoenix.nbtlib.NBTReadOptions;
+import net.steelphoenix.nbtlib.NBTSizeLimiter;
+import net.steelphoenix.nbtlib.tag.NBTTagCompound;
+
+/**
+ * A loader that decompresses and parses the chunks of many region files in parallel.
+ * Chunks are loaded on an executor while results are handed to a {@link RegionLoadHandler} on the calling thread.
+ * At most a fixed amount of chunks is loaded or waiting to be handled at once, which bounds memory use.
+ * Instances can be reused and shared.
+ *
+ * @author SteelPhoenix
+ */
+public class RegionLoader {
+
+	private final Executor executor;
+	private final int maxInFlight;
+	private final boolean ordered;
+
+	/**
+	 * Create a loader on the common fork-join pool delivering chunks as soon as they are loaded.
+	 */
+	public RegionLoader() {
+		this(ForkJoinPool.commonPool(), 4 * ForkJoinPool.getCommonPoolParallelism(), false);
+	}
+
+	/**
+	 * Create a loader.
+	 *
+	 * @param executor Executor to load chunks on.
+	 * @param maxInFlight Maximum amount of chunks loaded or waiting to be handled at once.
+	 * @param ordered If chunks are handled in region order and then chunk index order instead of as soon as they are loaded.
+	 */
+	public RegionLoader(Executor executor, int maxInFlight, boolean ordered) {
+		// Preconditions
+		if (executor == null) {
+			throw new NullPointerException("Executor cannot be null");
+		}
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("Maximum in flight must be positive");
+		}
+
+		this.executor = executor;
+		this.maxInFlight = maxInFlight;
+		this.ordered = ordered;
+	}
+
+	/**
+	 * Load all chunks of region files.
+	 *
+	 * @param regions Region files.
+	 * @param handler Target handler.
+	 * @throws IOException if loading was stopped.
+	 */
+	public void load(Iterable<Path> regions, RegionLoadHandler handler) throws IOException {
+		load(regions, () -> NBTSizeLimiter.UNLIMITED, NBTReadOptions.DEFAULT, handler);
+	}
+
+	/**
+	 * Load all chunks of region files.
+	 * This returns once every chunk has been handled.
+	 * Note that the options should not be changed while loading.
+	 *
+	 * @param regions Region files.
+	 * @param limiters Size limiter supplier, called once per chunk.
+	 * @param options Read options.
+	 * @param handler Target handler.
+	 * @throws IOException if loading was stopped.
+	 */
+	public void load(Iterable<Path> regions, Supplier<NBTSizeLimiter> limiters, NBTReadOptions options, RegionLoadHandler handler) throws IOException {
+		// Preconditions
+		if (regions == null) {
+			throw new NullPointerException("Regions cannot be null");
+		}
+		if (limiters == null) {
+			throw new NullPointerException("Limiters cannot be null");
+		}
+		if (options == null) {
+			throw new NullPointerException("Options cannot be null");
+		}
+		if (handler == null) {
+			throw new NullPointerException("Handler cannot be null");
+		}
+
+		new Job(regions.iterator(), limiters, options, handler).run();
+	}
+
+	/**
+	 * A single load call.
+	 * All fields are only used by the calling thread, tasks are handed back through the completion queue.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private class Job {
+
+		private final Iterator<Path> regions;
+		private final Supplier<NBTSizeLimiter> limiters;
+		private final NBTReadOptions options;
+		private final RegionLoadHandler handler;
+		private final BlockingQueue<Task> completed = new LinkedBlockingQueue<>();
+		// Submitted tasks in order, only used if ordered
+		private final Deque<Task> order = new ArrayDeque<>();
+		private final List<Region> open = new ArrayList<>();
+		// Tasks submitted but not taken from the completion queue
+		private int running = 0;
+		// Tasks submitted but not handled
+		private int inFlight = 0;
+		private Region current = null;
+
+		private Job(Iterator<Path> regions, Supplier<NBTSizeLimiter> limiters, NBTReadOptions options, RegionLoadHandler handler) {
+			this.regions = regions;
+			this.limiters = limiters;
+			this.options = options;
+			this.handler = handler;
+		}
+
+		/**
+		 * Load everything.
+		 *
+		 * @throws IOException if loading was stopped.
+		 */
+		private void run() throws IOException {
+			try {
+				while (true) {
+					while (inFlight < maxInFlight && submitNext()) {
+						// Nothing
+					}
+					if (inFlight == 0) {
+						break;
+					}
+
+					Task task;
+					try {
+						task = completed.take();
+					} catch (InterruptedException exception) {
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException("Interrupted while loading chunks");
+					}
+					running--;
+
+					if (!ordered) {
+						handle(task);
+						continue;
+					}
+					task.done = true;
+					while (!order.isEmpty() && order.peekFirst().done) {
+						handle(order.pollFirst());
+					}
+				}
+			} finally {
+				// Tasks still use the open regions
+				boolean interrupted = false;
+				while (running > 0) {
+					try {
+						completed.take();
+						running--;
+					} catch (InterruptedException exception) {
+						interrupted = true;
+					}
+				}
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+				closeAll();
+			}
+		}
+
+		/**
+		 * Submit the next chunk.
+		 *
+		 * @return false if there are no more chunks.
+		 * @throws IOException if loading was stopped.
+		 */
+		private boolean submitNext() throws IOException {
+			while (true) {
+				if (current == null) {
+					if (!regions.hasNext()) {
+						return false;
+					}
+					Path path = regions.next();
+					if (path == null) {
+						throw new NullPointerException("Region cannot be null");
+					}
+					try {
+						current = new Region(path, new RegionFile(path, true));
+					} catch (IOException exception) {
+						handler.regionFailed(path, exception);
+						continue;
+					} catch (MalformedNBTException exception) {
+						handler.regionFailed(path, new IOException("Region file is malformed: " + path, exception));
+						continue;
+					}
+					open.add(current);
+				}
+
+				// Find the next present chunk
+				while (current.next < 1024 && !current.file.hasChunk(current.next & 31, current.next >> 5)) {
+					current.next++;
+				}
+				if (current.next == 1024) {
+					current.exhausted = true;
+					closeIfDone(current);
+					current = null;
+					continue;
+				}
+
+				Task task = new Task(current, current.next & 31, current.next >> 5, limiters.get());
+				current.next++;
+				executor.execute(task);
+				current.pending++;
+				running++;
+				inFlight++;
+				if (ordered) {
+					order.addLast(task);
+				}
+				return true;
+			}
+		}
+
+		/**
+		 * Hand a task result to the handler.
+		 *
+		 * @param task Target task.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		private void handle(Task task) throws IOException {
+			inFlight--;
+			Region region = task.region;
+			region.pending--;
+			try {
+				if (task.exception == null) {
+					handler.chunkLoaded(region.path, task.x, task.z, task.tag);
+				}
+
+				// Errors are not a problem with the chunk so they stop loading on the calling thread
+				else if (task.exception instanceof Error) {
+					throw (Error) task.exception;
+				}
+				else if (task.exception instanceof Exception) {
+					handler.chunkFailed(region.path, task.x, task.z, (Exception) task.exception);
+				}
+				else {
+					handler.chunkFailed(region.path, task.x, task.z, new ExecutionException(task.exception));
+				}
+			} finally {
+				closeIfDone(region);
+			}
+		}
+
+		/**
+		 * Close a region once all of its chunks have been handled.
+		 *
+		 * @param region Target region.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		private void closeIfDone(Region region) throws IOException {
+			if (region.exhausted && region.pending == 0 && open.remove(region)) {
+				region.file.close();
+			}
+		}
+
+		/**
+		 * Close all regions that are still open.
+		 *
+		 * @throws IOException if an I/O error occurs.
+		 */
+		private void closeAll() throws IOException {
+			IOException exception = null;
+			for (Region region : open) {
+				try {
+					region.file.close();
+				} catch (IOException e) {
+					if (exception == null) {
+						exception = e;
+					}
+					else {
+						exception.addSuppressed(e);
+					}
+				}
+			}
+			open.clear();
+			if (exception != null) {
+				throw exception;
+			}
+		}
+
+		/**
+		 * An open region file.
+		 *
+		 * @author SteelPhoenix
+		 */
+		private class Region {
+
+			private final Path path;
+			private final RegionFile file;
+			// Next chunk index to check
+			private int next = 0;
+			// Submitted chunks that were not handled yet
+			private int pending = 0;
+			// If all chunks were submitted
+			private boolean exhausted = false;
+
+			private Region(Path path, RegionFile file) {
+				this.path = path;
+				this.file = file;
+			}
+		}
+
+		/**
+		 * A chunk load task.
+		 *
+		 * @author SteelPhoenix
+		 */
+		private class Task implements Runnable {
+
+			private final Region region;
+			private final int x;
+			private final int z;
+			private final NBTSizeLimiter limiter;
+			private NBTTagCompound tag;
+			private Throwable exception;
+			// If taken from the completion queue, only used if ordered
+			private boolean done = false;
+
+			private Task(Region region, int x, int z, NBTSizeLimiter limiter) {
+				this.region = region;
+				this.x = x;
+				this.z = z;
+				this.limiter = limiter;
+			}
+
+			@Override
+			public void run() {
+				try {
+					tag = region.file.read(x, z, limiter, options);
+				} catch (Throwable exception) {
+					// Everything is caught as the task would otherwise be reported as loaded
+					this.exception = exception;
+				} finally {
+					// The queue hands the result to the calling thread safely
+					completed.add(this);
+				}
+			}
+		}
+	}
+}
@@ -17,6 +17,7 @@ import net.steelphoenix.nbtlib.NBTTagType;
 public class NBTTagByte extends AbstractNumericNBTTag<Byte> {
 
 	public static final NBTTagType TYPE = NBTTagType.BYTE;
+	private byte value;
 
 	public NBTTagByte() {
 		this((byte) 0);
@@ -27,7 +28,41 @@ public class NBTTagByte extends AbstractNumericNBTTag<Byte> {
 	}
 
 	public NBTTagByte(byte value) {
-		super(TYPE, Byte.valueOf(value));
+		this.value = value;
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
+	}
+
+	/**
+	 * Get a shared immutable tag.
+	 *
+	 * @param value Target value.
+	 * @return the tag.
+	 */
+	public static NBTTagByte valueOf(byte value) {
+		return Cache.CACHE[value & 0xFF];
+	}
+
+	/**
+	 * Get a shared immutable tag.
+	 *
+	 * @param value Target value.
+	 * @return the tag.
+	 */
+	public static NBTTagByte valueOf(boolean value) {
+		return valueOf(value ? (byte) 1 : (byte) 0);
+	}
+
+	/**
+	 * Set the value without boxing it.
+	 *
+	 * @param value Target value.
+	 */
+	public void setValue(byte value) {
+		this.value = value;
 	}
 
 	/**
@@ -37,7 +72,7 @@ public class NBTTagByte extends AbstractNumericNBTTag<Byte> {
 	 * @return the boolean value.
 	 */
 	public boolean getAsBoolean() {
-		switch (getValue().byteValue()) {
+		switch (value) {
 			case 0:
 				return false;
 			case 1:
@@ -47,6 +82,36 @@ public class NBTTagByte extends AbstractNumericNBTTag<Byte> {
 		}
 	}
 
+	@Override
+	public byte getAsByte() {
+		return value;
+	}
+
+	@Override
+	public short getAsShort() {
+		return value;
+	}
+
+	@Override
+	public int getAsInt() {
+		return value;
+	}
+
+	@Override
+	public long getAsLong() {
+		return value;
+	}
+
+	@Override
+	public float getAsFloat() {
+		return value;
+	}
+
+	@Override
+	public double getAsDouble() {
+		return value;
+	}
+
 	@Override
 	public void write(DataOutput output) throws IOException {
 		// Preconditions
@@ -57,14 +122,17 @@ public class NBTTagByte extends AbstractNumericNBTTag<Byte> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		output.writeByte(getValue().byteValue());
+		output.writeByte(value);
+	}
+
+	@Override
+	public long serializedSize() {
+		return 1L;
 	}
 
 	@Override
 	public NBTTagByte copy() {
-		NBTTagByte tag = new NBTTagByte();
-		tag.setValue0(getValue());
-		return tag;
+		return new NBTTagByte(value);
 	}
 
 	@Override
@@ -74,6 +142,83 @@ public class NBTTagByte extends AbstractNumericNBTTag<Byte> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		return getValue().toString() + 'b';
+		return Byte.toString(value) + 'b';
+	}
+
+	@Override
+	public int hashCode() {
+		return Byte.hashCode(value);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		// Compare without boxing if possible
+		if (object instanceof NBTTagByte) {
+			return value == ((NBTTagByte) object).value;
+		}
+		return super.equals(object);
+	}
+
+	@Override
+	protected NBTTagByte asReadOnly() {
+		return valueOf(value);
+	}
+
+	@Override
+	protected Byte getValue0() {
+		return Byte.valueOf(value);
+	}
+
+	@Override
+	protected void setValue0(Byte value) {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		this.value = value.byteValue();
+	}
+
+	/**
+	 * An immutable byte tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Immutable extends NBTTagByte {
+
+		private Immutable(byte value) {
+			super(value);
+		}
+
+		@Override
+		public void setValue(byte value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected void setValue0(Byte value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected NBTTagByte asReadOnly() {
+			return this;
+		}
+	}
+
+	/**
+	 * The shared immutable tags.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Cache {
+
+		private static final NBTTagByte[] CACHE = new NBTTagByte[256];
+
+		static {
+			for (int i = 0; i < CACHE.length; i++) {
+				CACHE[i] = new Immutable((byte) i);
+			}
+		}
 	}
 }
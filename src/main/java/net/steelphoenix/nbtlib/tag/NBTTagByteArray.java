@@ -2,20 +2,21 @@ package net.steelphoenix.nbtlib.tag;
 
 import java.io.DataOutput;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
-import net.steelphoenix.nbtlib.AbstractCollectionNBTTag;
-import net.steelphoenix.nbtlib.MalformedNBTException;
+import net.steelphoenix.nbtlib.AbstractArrayNBTTag;
 import net.steelphoenix.nbtlib.NBTTagType;
+import net.steelphoenix.nbtlib.SNBTOptions;
 
 /**
  * A Byte array tag.
- * This tag is valid if the array does not contain null elements and all values are valid.
+ * This tag is always valid.
  *
  * @author SteelPhoenix
  */
-public class NBTTagByteArray extends AbstractCollectionNBTTag<NBTTagByte> {
+public class NBTTagByteArray extends AbstractArrayNBTTag<NBTTagByte, byte[]> {
 
 	public static final NBTTagType TYPE = NBTTagType.BYTE_ARRAY;
 
@@ -24,7 +25,21 @@ public class NBTTagByteArray extends AbstractCollectionNBTTag<NBTTagByte> {
 	}
 
 	public NBTTagByteArray(byte[] value) {
-		super(TYPE, toList(value));
+		super(copyArray(value));
+	}
+
+	/**
+	 * Create a read-only view of a tag.
+	 *
+	 * @param tag Target tag.
+	 */
+	private NBTTagByteArray(NBTTagByteArray tag) {
+		super(tag);
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
 	}
 
 	@Override
@@ -32,27 +47,66 @@ public class NBTTagByteArray extends AbstractCollectionNBTTag<NBTTagByte> {
 		return NBTTagType.BYTE;
 	}
 
-	@Override
-	public List<NBTTagByte> getValue() {
-		List<NBTTagByte> list = new ArrayList<>(size());
-		for (NBTTagByte tag : this) {
-			list.add(tag == null ? null : tag.copy());
-		}
-		return list;
+	/**
+	 * Get an element without creating a tag.
+	 *
+	 * @param index Target index.
+	 * @return the element.
+	 */
+	public byte getByte(int index) {
+		return getArray0()[index];
 	}
 
-	@Override
-	public void setValue(List<NBTTagByte> value) {
-		// Preconditions
-		if (value == null) {
-			throw new NullPointerException("Value cannot be null");
-		}
+	/**
+	 * Set an element without creating a tag.
+	 *
+	 * @param index Target index.
+	 * @param value Target value.
+	 */
+	public void setByte(int index, byte value) {
+		getArray0()[index] = value;
+	}
 
-		List<NBTTagByte> list = new ArrayList<>(value.size());
-		for (NBTTagByte tag : value) {
-			list.add(tag == null ? null : tag.copy());
-		}
-		setValue0(list);
+	/**
+	 * Get the value as a primitive array.
+	 * Note that this returns a snapshot.
+	 *
+	 * @return the array.
+	 */
+	public byte[] getAsByteArray() {
+		return getArray0().clone();
+	}
+
+	/**
+	 * Get a read-only view of the primitive array.
+	 * Unlike {@link #getAsByteArray()} this does not copy anything.
+	 * Note that the view does not reflect changes to the length of this tag.
+	 *
+	 * @return the view.
+	 */
+	public ByteBuffer asBufferView() {
+		return ByteBuffer.wrap(getArray0()).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Set the value from a primitive array.
+	 * Note that this may not be null.
+	 *
+	 * @param value Target value.
+	 */
+	public void setValue(byte[] value) {
+		setArray0(copyArray(value));
+	}
+
+	/**
+	 * Get a stream of the elements.
+	 * Note that there is no primitive byte stream so elements are widened.
+	 *
+	 * @return the stream.
+	 */
+	public IntStream intStream() {
+		byte[] array = getArray0();
+		return IntStream.range(0, array.length).map(i -> array[i]);
 	}
 
 	@Override
@@ -61,45 +115,102 @@ public class NBTTagByteArray extends AbstractCollectionNBTTag<NBTTagByte> {
 		if (output == null) {
 			throw new NullPointerException("Output cannot be null");
 		}
-		if (!isValid()) {
-			throw new MalformedNBTException("Tag is not valid");
-		}
 
-		output.writeInt(size());
-		for (NBTTagByte tag : this) {
-			output.writeByte(tag.getAsByte());
-		}
+		byte[] array = getArray0();
+		output.writeInt(array.length);
+		output.write(array);
+	}
+
+	@Override
+	public long serializedSize() {
+		return 4L + size();
 	}
 
 	@Override
 	public NBTTagByteArray copy() {
-		NBTTagByteArray tag = new NBTTagByteArray();
-		tag.setValue0(getValue());
-		return tag;
+		return new NBTTagByteArray(getArray0());
+	}
+
+	@Override
+	protected NBTTagByteArray asReadOnly() {
+		return new ReadOnly(this);
+	}
+
+	@Override
+	protected void writeSNBT(Appendable output, SNBTOptions options, int depth) throws IOException {
+		writeSNBT(output, options, depth, "[B;", "]");
+	}
+
+	@Override
+	protected void writeElementSNBT(NBTTagByte tag, Appendable output, SNBTOptions options, int depth) throws IOException {
+		// Upper-case suffix because Minecraft does this
+		output.append(Byte.toString(tag.getAsByte())).append('B');
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(getArray0());
+	}
+
+	@Override
+	protected int length(byte[] array) {
+		return array.length;
 	}
 
 	@Override
-	public String asSNBT(boolean pretty) {
-		// To uppercase because Minecraft does this
-		return asSNBT(pretty, "[B;", "]", (tag, flag) -> tag.asSNBT(flag).toUpperCase());
+	protected byte[] newArray(int length) {
+		return new byte[length];
+	}
+
+	@Override
+	protected NBTTagByte getElement(byte[] array, int index) {
+		return new NBTTagByte(array[index]);
+	}
+
+	@Override
+	protected NBTTagByte getImmutableElement(byte[] array, int index) {
+		return NBTTagByte.valueOf(array[index]);
+	}
+
+	@Override
+	protected void setElement(byte[] array, int index, NBTTagByte element) {
+		array[index] = element.getAsByte();
 	}
 
 	/**
-	 * Convert an array to a tag list.
+	 * Copy an array.
 	 *
 	 * @param array Target array.
-	 * @return the created list.
+	 * @return the copied array.
 	 */
-	private static List<NBTTagByte> toList(byte[] array) {
+	private static byte[] copyArray(byte[] array) {
 		// Preconditions
 		if (array == null) {
 			throw new NullPointerException("Array cannot be null");
 		}
 
-		List<NBTTagByte> list = new ArrayList<>(array.length);
-		for (int i = 0; i < array.length; i++) {
-			list.add(new NBTTagByte(array[i]));
+		return array.clone();
+	}
+
+	/**
+	 * A read-only view of a byte array tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class ReadOnly extends NBTTagByteArray {
+
+		private ReadOnly(NBTTagByteArray tag) {
+			super(tag);
+		}
+
+		@Override
+		public void setByte(int index, byte value) {
+			throw new UnsupportedOperationException("Cannot change a read-only tag");
+		}
+
+		@Override
+		protected NBTTagByteArray asReadOnly() {
+			return this;
 		}
-		return list;
 	}
 }
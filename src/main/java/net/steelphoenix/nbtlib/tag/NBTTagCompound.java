@@ -9,6 +9,7 @@ import net.steelphoenix.nbtlib.AbstractMapNBTTag;
 import net.steelphoenix.nbtlib.INBTTag;
 import net.steelphoenix.nbtlib.MalformedNBTException;
 import net.steelphoenix.nbtlib.NBTTagType;
+import net.steelphoenix.nbtlib.SNBTOptions;
 
 /**
  * A compound tag.
@@ -25,14 +26,28 @@ public class NBTTagCompound extends AbstractMapNBTTag<INBTTag<?>> {
 	}
 
 	public NBTTagCompound(Map<String, INBTTag<?>> value) {
-		super(TYPE, new LinkedHashMap<>(0));
+		super(new LinkedHashMap<>(0));
 		setValue(value);
 	}
 
+	/**
+	 * Create a read-only view of a tag.
+	 *
+	 * @param tag Target tag.
+	 */
+	private NBTTagCompound(NBTTagCompound tag) {
+		super(tag);
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
+	}
+
 	@Override
 	public Map<String, INBTTag<?>> getValue() {
 		Map<String, INBTTag<?>> map = new LinkedHashMap<>(size());
-		for (Entry<String, INBTTag<?>> entry : entrySet()) {
+		for (Entry<String, INBTTag<?>> entry : getValue0().entrySet()) {
 			map.put(entry.getKey(), entry.getValue() == null ? null : entry.getValue().copy());
 		}
 		return map;
@@ -58,12 +73,14 @@ public class NBTTagCompound extends AbstractMapNBTTag<INBTTag<?>> {
 		if (output == null) {
 			throw new NullPointerException("Output cannot be null");
 		}
-		if (!isValid()) {
-			throw new MalformedNBTException("Tag is not valid");
-		}
 
-		for (Entry<String, INBTTag<?>> entry : entrySet()) {
+		for (Entry<String, INBTTag<?>> entry : getValue0().entrySet()) {
 			INBTTag<?> tag = entry.getValue();
+
+			// Entries check themselves while being written so every level is only checked once
+			if (entry.getKey() == null || tag == null) {
+				throw new MalformedNBTException("Tag is not valid");
+			}
 			output.writeByte(tag.getTypeId());
 
 			// This should not happen when used properly
@@ -73,7 +90,7 @@ public class NBTTagCompound extends AbstractMapNBTTag<INBTTag<?>> {
 				continue;
 			}
 
-			output.writeUTF(entry.getKey());
+			writeUTF(output, entry.getKey());
 			tag.write(output);
 		}
 
@@ -81,15 +98,57 @@ public class NBTTagCompound extends AbstractMapNBTTag<INBTTag<?>> {
 		output.writeByte(NBTTagType.END.getId());
 	}
 
+	@Override
+	public long serializedSize() {
+		long size = getCachedSize();
+		if (size < 0L) {
+			// Last entry
+			size = 1L;
+			for (Entry<String, INBTTag<?>> entry : getValue0().entrySet()) {
+				INBTTag<?> tag = entry.getValue();
+				if (entry.getKey() == null || tag == null) {
+					throw new MalformedNBTException("Tag is not valid");
+				}
+
+				// End tags are written without key or value, see write
+				size += tag.getType() == NBTTagType.END ? 1L : 3L + getUTFLength(entry.getKey()) + tag.serializedSize();
+			}
+			setCachedSize(size);
+		}
+		return size;
+	}
+
 	@Override
 	public NBTTagCompound copy() {
 		NBTTagCompound tag = new NBTTagCompound();
-		tag.setValue0(getValue());
+		shareValue(tag);
 		return tag;
 	}
 
 	@Override
-	public String asSNBT(boolean pretty) {
-		return asSNBT(pretty, "{", "}");
+	protected NBTTagCompound asReadOnly() {
+		return new ReadOnly(this);
+	}
+
+	@Override
+	protected void writeSNBT(Appendable output, SNBTOptions options, int depth) throws IOException {
+		writeSNBT(output, options, depth, "{", "}");
+	}
+
+	/**
+	 * A read-only view of a compound tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class ReadOnly extends NBTTagCompound {
+
+		private ReadOnly(NBTTagCompound tag) {
+			super(tag);
+		}
+
+		@Override
+		protected NBTTagCompound asReadOnly() {
+			return this;
+		}
 	}
 }
\ No newline at end of file
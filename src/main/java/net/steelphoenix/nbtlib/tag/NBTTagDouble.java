@@ -16,37 +16,62 @@ import net.steelphoenix.nbtlib.NBTTagType;
 public class NBTTagDouble extends AbstractNumericNBTTag<Double> {
 
 	public static final NBTTagType TYPE = NBTTagType.DOUBLE;
+	private double value;
 
 	public NBTTagDouble() {
 		this(0D);
 	}
 
 	public NBTTagDouble(double value) {
-		super(TYPE, Double.valueOf(value));
+		this.value = value;
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
+	}
+
+	/**
+	 * Set the value without boxing it.
+	 *
+	 * @param value Target value.
+	 */
+	public void setValue(double value) {
+		this.value = value;
 	}
 
 	@Override
 	public byte getAsByte() {
 		// This is what Minecraft does
-		return (byte) (floor(getValue().doubleValue()) & 0xFF);
+		return (byte) (floor(value) & 0xFF);
 	}
 
 	@Override
 	public short getAsShort() {
 		// This is what Minecraft does
-		return (short) (floor(getValue().doubleValue()) & 0xFFFF);
+		return (short) (floor(value) & 0xFFFF);
 	}
 
 	@Override
 	public int getAsInt() {
 		// This is what Minecraft does
-		return floor(getValue().doubleValue());
+		return floor(value);
 	}
 
 	@Override
 	public long getAsLong() {
 		// This is what Minecraft does
-		return (long) Math.floor(getValue().doubleValue());
+		return (long) Math.floor(value);
+	}
+
+	@Override
+	public float getAsFloat() {
+		return (float) value;
+	}
+
+	@Override
+	public double getAsDouble() {
+		return value;
 	}
 
 	@Override
@@ -59,14 +84,17 @@ public class NBTTagDouble extends AbstractNumericNBTTag<Double> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		output.writeDouble(getValue().doubleValue());
+		output.writeDouble(value);
+	}
+
+	@Override
+	public long serializedSize() {
+		return 8L;
 	}
 
 	@Override
 	public NBTTagDouble copy() {
-		NBTTagDouble tag = new NBTTagDouble();
-		tag.setValue0(getValue());
-		return tag;
+		return new NBTTagDouble(value);
 	}
 
 	@Override
@@ -76,7 +104,41 @@ public class NBTTagDouble extends AbstractNumericNBTTag<Double> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		return getValue().toString() + 'd';
+		return Double.toString(value) + 'd';
+	}
+
+	@Override
+	public int hashCode() {
+		return Double.hashCode(value);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		// Compare without boxing if possible
+		if (object instanceof NBTTagDouble) {
+			return Double.doubleToLongBits(value) == Double.doubleToLongBits(((NBTTagDouble) object).value);
+		}
+		return super.equals(object);
+	}
+
+	@Override
+	protected NBTTagDouble asReadOnly() {
+		return new Immutable(value);
+	}
+
+	@Override
+	protected Double getValue0() {
+		return Double.valueOf(value);
+	}
+
+	@Override
+	protected void setValue0(Double value) {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		this.value = value.doubleValue();
 	}
 
 	/**
@@ -89,4 +151,31 @@ public class NBTTagDouble extends AbstractNumericNBTTag<Double> {
 		int i = (int) d;
 		return d < i ? i - 1 : i;
 	}
+
+	/**
+	 * An immutable double tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Immutable extends NBTTagDouble {
+
+		private Immutable(double value) {
+			super(value);
+		}
+
+		@Override
+		public void setValue(double value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected void setValue0(Double value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected NBTTagDouble asReadOnly() {
+			return this;
+		}
+	}
 }
@@ -20,7 +20,12 @@ public class NBTTagEnd extends AbstractNBTTag<Object> {
 	private static final INBTTag<?> INSTANCE = new NBTTagEnd();
 
 	private NBTTagEnd() {
-		super(TYPE, OBJECT);
+		// Nothing
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
 	}
 
 	@Override
@@ -28,6 +33,11 @@ public class NBTTagEnd extends AbstractNBTTag<Object> {
 		// Nothing
 	}
 
+	@Override
+	public long serializedSize() {
+		return 0L;
+	}
+
 	@Override
 	public NBTTagEnd copy() {
 		return this;
@@ -44,6 +54,11 @@ public class NBTTagEnd extends AbstractNBTTag<Object> {
 		return "NBTTag[type=" + getType().getName() + "]";
 	}
 
+	@Override
+	protected Object getValue0() {
+		return OBJECT;
+	}
+
 	@Override
 	protected void setValue0(Object value) {
 		throw new UnsupportedOperationException("Cannot set data for " + getType().getName());
@@ -16,31 +16,61 @@ import net.steelphoenix.nbtlib.NBTTagType;
 public class NBTTagFloat extends AbstractNumericNBTTag<Float> {
 
 	public static final NBTTagType TYPE = NBTTagType.FLOAT;
+	private float value;
 
 	public NBTTagFloat() {
 		this(0F);
 	}
 
 	public NBTTagFloat(float value) {
-		super(TYPE, Float.valueOf(value));
+		this.value = value;
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
+	}
+
+	/**
+	 * Set the value without boxing it.
+	 *
+	 * @param value Target value.
+	 */
+	public void setValue(float value) {
+		this.value = value;
 	}
 
 	@Override
 	public byte getAsByte() {
 		// This is what Minecraft does
-		return (byte) (floor(getValue().byteValue()) & 0xFF);
+		return (byte) (floor((byte) value) & 0xFF);
 	}
 
 	@Override
 	public short getAsShort() {
 		// This is what Minecraft does
-		return (short) (floor(getValue().shortValue()) & 0xFFFF);
+		return (short) (floor((short) value) & 0xFFFF);
 	}
 
 	@Override
 	public int getAsInt() {
 		// This is what Minecraft does
-		return floor(getValue().intValue());
+		return floor((int) value);
+	}
+
+	@Override
+	public long getAsLong() {
+		return (long) value;
+	}
+
+	@Override
+	public float getAsFloat() {
+		return value;
+	}
+
+	@Override
+	public double getAsDouble() {
+		return value;
 	}
 
 	@Override
@@ -53,14 +83,17 @@ public class NBTTagFloat extends AbstractNumericNBTTag<Float> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		output.writeFloat(getValue().floatValue());
+		output.writeFloat(value);
+	}
+
+	@Override
+	public long serializedSize() {
+		return 4L;
 	}
 
 	@Override
 	public NBTTagFloat copy() {
-		NBTTagFloat tag = new NBTTagFloat();
-		tag.setValue0(getValue());
-		return tag;
+		return new NBTTagFloat(value);
 	}
 
 	@Override
@@ -70,7 +103,41 @@ public class NBTTagFloat extends AbstractNumericNBTTag<Float> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		return getValue().toString() + 'f';
+		return Float.toString(value) + 'f';
+	}
+
+	@Override
+	public int hashCode() {
+		return Float.hashCode(value);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		// Compare without boxing if possible
+		if (object instanceof NBTTagFloat) {
+			return Float.floatToIntBits(value) == Float.floatToIntBits(((NBTTagFloat) object).value);
+		}
+		return super.equals(object);
+	}
+
+	@Override
+	protected NBTTagFloat asReadOnly() {
+		return new Immutable(value);
+	}
+
+	@Override
+	protected Float getValue0() {
+		return Float.valueOf(value);
+	}
+
+	@Override
+	protected void setValue0(Float value) {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		this.value = value.floatValue();
 	}
 
 	/**
@@ -83,4 +150,31 @@ public class NBTTagFloat extends AbstractNumericNBTTag<Float> {
 		int i = (int) f;
 		return f < i ? i - 1 : i;
 	}
+
+	/**
+	 * An immutable float tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Immutable extends NBTTagFloat {
+
+		private Immutable(float value) {
+			super(value);
+		}
+
+		@Override
+		public void setValue(float value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected void setValue0(Float value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected NBTTagFloat asReadOnly() {
+			return this;
+		}
+	}
 }
\ No newline at end of file
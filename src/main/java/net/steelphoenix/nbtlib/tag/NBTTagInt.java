@@ -16,25 +16,74 @@ import net.steelphoenix.nbtlib.NBTTagType;
 public class NBTTagInt extends AbstractNumericNBTTag<Integer> {
 
 	public static final NBTTagType TYPE = NBTTagType.INT;
+	private int value;
 
 	public NBTTagInt() {
 		this(0);
 	}
 
 	public NBTTagInt(int value) {
-		super(TYPE, Integer.valueOf(value));
+		this.value = value;
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
+	}
+
+	/**
+	 * Get an immutable tag.
+	 * Note that tags with a value in range [-128, 1024] are shared.
+	 *
+	 * @param value Target value.
+	 * @return the tag.
+	 */
+	public static NBTTagInt valueOf(int value) {
+		if (value >= Cache.LOW && value <= Cache.HIGH) {
+			return Cache.CACHE[value - Cache.LOW];
+		}
+		return new Immutable(value);
+	}
+
+	/**
+	 * Set the value without boxing it.
+	 *
+	 * @param value Target value.
+	 */
+	public void setValue(int value) {
+		this.value = value;
 	}
 
 	@Override
 	public byte getAsByte() {
 		// This is what Minecraft does
-		return (byte) (getValue().intValue() & 0xFF);
+		return (byte) (value & 0xFF);
 	}
 
 	@Override
 	public short getAsShort() {
 		// This is what Minecraft does
-		return (short) (getValue().intValue() & 0xFFFF);
+		return (short) (value & 0xFFFF);
+	}
+
+	@Override
+	public int getAsInt() {
+		return value;
+	}
+
+	@Override
+	public long getAsLong() {
+		return value;
+	}
+
+	@Override
+	public float getAsFloat() {
+		return value;
+	}
+
+	@Override
+	public double getAsDouble() {
+		return value;
 	}
 
 	@Override
@@ -47,14 +96,17 @@ public class NBTTagInt extends AbstractNumericNBTTag<Integer> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		output.writeInt(getValue().intValue());
+		output.writeInt(value);
+	}
+
+	@Override
+	public long serializedSize() {
+		return 4L;
 	}
 
 	@Override
 	public NBTTagInt copy() {
-		NBTTagInt tag = new NBTTagInt();
-		tag.setValue0(getValue());
-		return tag;
+		return new NBTTagInt(value);
 	}
 
 	@Override
@@ -64,6 +116,85 @@ public class NBTTagInt extends AbstractNumericNBTTag<Integer> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		return getValue().toString();
+		return Integer.toString(value);
+	}
+
+	@Override
+	public int hashCode() {
+		return Integer.hashCode(value);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		// Compare without boxing if possible
+		if (object instanceof NBTTagInt) {
+			return value == ((NBTTagInt) object).value;
+		}
+		return super.equals(object);
+	}
+
+	@Override
+	protected NBTTagInt asReadOnly() {
+		return valueOf(value);
+	}
+
+	@Override
+	protected Integer getValue0() {
+		return Integer.valueOf(value);
+	}
+
+	@Override
+	protected void setValue0(Integer value) {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		this.value = value.intValue();
+	}
+
+	/**
+	 * An immutable int tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Immutable extends NBTTagInt {
+
+		private Immutable(int value) {
+			super(value);
+		}
+
+		@Override
+		public void setValue(int value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected void setValue0(Integer value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected NBTTagInt asReadOnly() {
+			return this;
+		}
+	}
+
+	/**
+	 * The shared immutable tags.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Cache {
+
+		private static final int LOW = -128;
+		private static final int HIGH = 1024;
+		private static final NBTTagInt[] CACHE = new NBTTagInt[HIGH - LOW + 1];
+
+		static {
+			for (int i = 0; i < CACHE.length; i++) {
+				CACHE[i] = new Immutable((i + LOW));
+			}
+		}
 	}
 }
\ No newline at end of file
@@ -2,20 +2,21 @@ package net.steelphoenix.nbtlib.tag;
 
 import java.io.DataOutput;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
-import net.steelphoenix.nbtlib.AbstractCollectionNBTTag;
-import net.steelphoenix.nbtlib.MalformedNBTException;
+import net.steelphoenix.nbtlib.AbstractArrayNBTTag;
 import net.steelphoenix.nbtlib.NBTTagType;
+import net.steelphoenix.nbtlib.SNBTOptions;
 
 /**
  * An integer array tag.
- * This tag is valid if the array does not contain null elements and all values are valid.
+ * This tag is always valid.
  *
  * @author SteelPhoenix
  */
-public class NBTTagIntArray extends AbstractCollectionNBTTag<NBTTagInt> {
+public class NBTTagIntArray extends AbstractArrayNBTTag<NBTTagInt, int[]> {
 
 	public static final NBTTagType TYPE = NBTTagType.INT_ARRAY;
 
@@ -24,7 +25,21 @@ public class NBTTagIntArray extends AbstractCollectionNBTTag<NBTTagInt> {
 	}
 
 	public NBTTagIntArray(int[] value) {
-		super(TYPE, toList(value));
+		super(copyArray(value));
+	}
+
+	/**
+	 * Create a read-only view of a tag.
+	 *
+	 * @param tag Target tag.
+	 */
+	private NBTTagIntArray(NBTTagIntArray tag) {
+		super(tag);
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
 	}
 
 	@Override
@@ -32,27 +47,64 @@ public class NBTTagIntArray extends AbstractCollectionNBTTag<NBTTagInt> {
 		return NBTTagType.INT;
 	}
 
-	@Override
-	public List<NBTTagInt> getValue() {
-		List<NBTTagInt> list = new ArrayList<>(size());
-		for (NBTTagInt tag : this) {
-			list.add(tag == null ? null : tag.copy());
-		}
-		return list;
+	/**
+	 * Get an element without creating a tag.
+	 *
+	 * @param index Target index.
+	 * @return the element.
+	 */
+	public int getInt(int index) {
+		return getArray0()[index];
 	}
 
-	@Override
-	public void setValue(List<NBTTagInt> value) {
-		// Preconditions
-		if (value == null) {
-			throw new NullPointerException("Value cannot be null");
-		}
+	/**
+	 * Set an element without creating a tag.
+	 *
+	 * @param index Target index.
+	 * @param value Target value.
+	 */
+	public void setInt(int index, int value) {
+		getArray0()[index] = value;
+	}
 
-		List<NBTTagInt> list = new ArrayList<>(value.size());
-		for (NBTTagInt tag : value) {
-			list.add(tag == null ? null : tag.copy());
-		}
-		setValue0(list);
+	/**
+	 * Get the value as a primitive array.
+	 * Note that this returns a snapshot.
+	 *
+	 * @return the array.
+	 */
+	public int[] getAsIntArray() {
+		return getArray0().clone();
+	}
+
+	/**
+	 * Get a read-only view of the primitive array.
+	 * Unlike {@link #getAsIntArray()} this does not copy anything.
+	 * Note that the view does not reflect changes to the length of this tag.
+	 *
+	 * @return the view.
+	 */
+	public IntBuffer asBufferView() {
+		return IntBuffer.wrap(getArray0()).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Set the value from a primitive array.
+	 * Note that this may not be null.
+	 *
+	 * @param value Target value.
+	 */
+	public void setValue(int[] value) {
+		setArray0(copyArray(value));
+	}
+
+	/**
+	 * Get a stream of the elements.
+	 *
+	 * @return the stream.
+	 */
+	public IntStream intStream() {
+		return Arrays.stream(getArray0());
 	}
 
 	@Override
@@ -61,44 +113,102 @@ public class NBTTagIntArray extends AbstractCollectionNBTTag<NBTTagInt> {
 		if (output == null) {
 			throw new NullPointerException("Output cannot be null");
 		}
-		if (!isValid()) {
-			throw new MalformedNBTException("Tag is not valid");
-		}
 
-		output.writeInt(size());
-		for (NBTTagInt tag : this) {
-			output.writeInt(tag.getAsInt());
-		}
+		int[] array = getArray0();
+		output.writeInt(array.length);
+		writeArray(output, array);
+	}
+
+	@Override
+	public long serializedSize() {
+		return 4L + 4L * size();
 	}
 
 	@Override
 	public NBTTagIntArray copy() {
-		NBTTagIntArray tag = new NBTTagIntArray();
-		tag.setValue0(getValue());
-		return tag;
+		return new NBTTagIntArray(getArray0());
+	}
+
+	@Override
+	protected NBTTagIntArray asReadOnly() {
+		return new ReadOnly(this);
+	}
+
+	@Override
+	protected void writeSNBT(Appendable output, SNBTOptions options, int depth) throws IOException {
+		writeSNBT(output, options, depth, "[I;", "]");
+	}
+
+	@Override
+	protected void writeElementSNBT(NBTTagInt tag, Appendable output, SNBTOptions options, int depth) throws IOException {
+		// No suffix for ints
+		output.append(Integer.toString(tag.getAsInt()));
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(getArray0());
+	}
+
+	@Override
+	protected int length(int[] array) {
+		return array.length;
 	}
 
 	@Override
-	public String asSNBT(boolean pretty) {
-		return asSNBT(pretty, "[I;", "]", (tag, flag) -> tag.asSNBT(flag));
+	protected int[] newArray(int length) {
+		return new int[length];
+	}
+
+	@Override
+	protected NBTTagInt getElement(int[] array, int index) {
+		return new NBTTagInt(array[index]);
+	}
+
+	@Override
+	protected NBTTagInt getImmutableElement(int[] array, int index) {
+		return NBTTagInt.valueOf(array[index]);
+	}
+
+	@Override
+	protected void setElement(int[] array, int index, NBTTagInt element) {
+		array[index] = element.getAsInt();
 	}
 
 	/**
-	 * Convert an array to a tag list.
+	 * Copy an array.
 	 *
 	 * @param array Target array.
-	 * @return the created list.
+	 * @return the copied array.
 	 */
-	private static List<NBTTagInt> toList(int[] array) {
+	private static int[] copyArray(int[] array) {
 		// Preconditions
 		if (array == null) {
 			throw new NullPointerException("Array cannot be null");
 		}
 
-		List<NBTTagInt> list = new ArrayList<>(array.length);
-		for (int i = 0; i < array.length; i++) {
-			list.add(new NBTTagInt(array[i]));
+		return array.clone();
+	}
+
+	/**
+	 * A read-only view of a int array tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class ReadOnly extends NBTTagIntArray {
+
+		private ReadOnly(NBTTagIntArray tag) {
+			super(tag);
+		}
+
+		@Override
+		public void setInt(int index, int value) {
+			throw new UnsupportedOperationException("Cannot change a read-only tag");
+		}
+
+		@Override
+		protected NBTTagIntArray asReadOnly() {
+			return this;
 		}
-		return list;
 	}
 }
@@ -9,6 +9,7 @@ import net.steelphoenix.nbtlib.AbstractCollectionNBTTag;
 import net.steelphoenix.nbtlib.INBTTag;
 import net.steelphoenix.nbtlib.MalformedNBTException;
 import net.steelphoenix.nbtlib.NBTTagType;
+import net.steelphoenix.nbtlib.SNBTOptions;
 
 /**
  * A list tag.
@@ -26,13 +27,27 @@ public class NBTTagList extends AbstractCollectionNBTTag<INBTTag<?>> {
 	}
 
 	public NBTTagList(NBTTagType type, INBTTag<?>[] value) {
-		super(TYPE, toList(value));
+		super(toList(value));
 		if (type == null) {
 			throw new NullPointerException("Type cannot be null");
 		}
 		setElementType(type);
 	}
 
+	/**
+	 * Create a read-only view of a tag.
+	 *
+	 * @param tag Target tag.
+	 */
+	private NBTTagList(NBTTagList tag) {
+		super(tag);
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
+	}
+
 	@Override
 	public NBTTagType getElementType() {
 		return type;
@@ -50,7 +65,7 @@ public class NBTTagList extends AbstractCollectionNBTTag<INBTTag<?>> {
 	@Override
 	public List<INBTTag<?>> getValue() {
 		List<INBTTag<?>> list = new ArrayList<>(size());
-		for (INBTTag<?> tag : this) {
+		for (INBTTag<?> tag : getValue0()) {
 			list.add(tag == null ? null : tag.copy());
 		}
 		return list;
@@ -76,28 +91,51 @@ public class NBTTagList extends AbstractCollectionNBTTag<INBTTag<?>> {
 		if (output == null) {
 			throw new NullPointerException("Output cannot be null");
 		}
-		if (!isValid()) {
-			throw new MalformedNBTException("Tag is not valid");
-		}
 
 		output.writeByte(isEmpty() ? NBTTagType.END.getId() : type.getId());
 		output.writeInt(size());
-		for (INBTTag<?> tag : this) {
+		for (INBTTag<?> tag : getValue0()) {
+			// Elements check themselves while being written so every level is only checked once
+			if (tag == null || tag.getType() != type) {
+				throw new MalformedNBTException("Tag is not valid");
+			}
 			tag.write(output);
 		}
 	}
 
+	@Override
+	public long serializedSize() {
+		long size = getCachedSize();
+		if (size < 0L) {
+			// Element type and size
+			size = 5L;
+			for (INBTTag<?> tag : getValue0()) {
+				if (tag == null) {
+					throw new MalformedNBTException("Tag is not valid");
+				}
+				size += tag.serializedSize();
+			}
+			setCachedSize(size);
+		}
+		return size;
+	}
+
 	@Override
 	public NBTTagList copy() {
 		NBTTagList tag = new NBTTagList();
 		tag.setElementType(getElementType());
-		tag.setValue0(getValue());
+		shareValue(tag);
 		return tag;
 	}
 
 	@Override
-	public String asSNBT(boolean pretty) {
-		return asSNBT(pretty, "[", "]", (tag, flag) -> tag.asSNBT(flag));
+	protected NBTTagList asReadOnly() {
+		return new ReadOnly(this);
+	}
+
+	@Override
+	protected void writeSNBT(Appendable output, SNBTOptions options, int depth) throws IOException {
+		writeSNBT(output, options, depth, "[", "]");
 	}
 
 	/**
@@ -118,4 +156,34 @@ public class NBTTagList extends AbstractCollectionNBTTag<INBTTag<?>> {
 		}
 		return list;
 	}
+
+	/**
+	 * A read-only view of a list tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class ReadOnly extends NBTTagList {
+
+		private final NBTTagList tag;
+
+		private ReadOnly(NBTTagList tag) {
+			super(tag);
+			this.tag = tag;
+		}
+
+		@Override
+		public NBTTagType getElementType() {
+			return tag.getElementType();
+		}
+
+		@Override
+		public void setElementType(NBTTagType type) {
+			throw new UnsupportedOperationException("Cannot change a read-only tag");
+		}
+
+		@Override
+		protected NBTTagList asReadOnly() {
+			return this;
+		}
+	}
 }
@@ -16,25 +16,54 @@ import net.steelphoenix.nbtlib.NBTTagType;
 public class NBTTagLong extends AbstractNumericNBTTag<Long> {
 
 	public static final NBTTagType TYPE = NBTTagType.LONG;
+	private long value;
 
 	public NBTTagLong() {
 		this(0L);
 	}
 
 	public NBTTagLong(long value) {
-		super(TYPE, Long.valueOf(value));
+		this.value = value;
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
+	}
+
+	/**
+	 * Get an immutable tag.
+	 * Note that tags with a value in range [-128, 1024] are shared.
+	 *
+	 * @param value Target value.
+	 * @return the tag.
+	 */
+	public static NBTTagLong valueOf(long value) {
+		if (value >= Cache.LOW && value <= Cache.HIGH) {
+			return Cache.CACHE[(int) value - Cache.LOW];
+		}
+		return new Immutable(value);
+	}
+
+	/**
+	 * Set the value without boxing it.
+	 *
+	 * @param value Target value.
+	 */
+	public void setValue(long value) {
+		this.value = value;
 	}
 
 	@Override
 	public byte getAsByte() {
 		// This is what Minecraft does
-		return (byte) (getValue().longValue() & 0xFFL);
+		return (byte) (value & 0xFFL);
 	}
 
 	@Override
 	public short getAsShort() {
 		// This is what Minecraft does
-		return (short) (getValue().longValue() & 0xFFFFL);
+		return (short) (value & 0xFFFFL);
 	}
 
 	@Override
@@ -42,7 +71,22 @@ public class NBTTagLong extends AbstractNumericNBTTag<Long> {
 		// This is what Minecraft does
 		// This logical AND does not make any sense
 		// They probably meant to use 0xFFFFFFFFL
-		return (int) (getValue().longValue() & 0xFFFFFFFFFFFFFFFFL);
+		return (int) (value & 0xFFFFFFFFFFFFFFFFL);
+	}
+
+	@Override
+	public long getAsLong() {
+		return value;
+	}
+
+	@Override
+	public float getAsFloat() {
+		return value;
+	}
+
+	@Override
+	public double getAsDouble() {
+		return value;
 	}
 
 	@Override
@@ -55,14 +99,17 @@ public class NBTTagLong extends AbstractNumericNBTTag<Long> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		output.writeLong(getValue().longValue());
+		output.writeLong(value);
+	}
+
+	@Override
+	public long serializedSize() {
+		return 8L;
 	}
 
 	@Override
 	public NBTTagLong copy() {
-		NBTTagLong tag = new NBTTagLong();
-		tag.setValue0(getValue());
-		return tag;
+		return new NBTTagLong(value);
 	}
 
 	@Override
@@ -74,6 +121,85 @@ public class NBTTagLong extends AbstractNumericNBTTag<Long> {
 
 		// For some reason this is an upper-case suffix in Minecraft code
 		// Other number suffixes are lower-case
-		return getValue().toString() + 'L';
+		return Long.toString(value) + 'L';
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(value);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		// Compare without boxing if possible
+		if (object instanceof NBTTagLong) {
+			return value == ((NBTTagLong) object).value;
+		}
+		return super.equals(object);
+	}
+
+	@Override
+	protected NBTTagLong asReadOnly() {
+		return valueOf(value);
+	}
+
+	@Override
+	protected Long getValue0() {
+		return Long.valueOf(value);
+	}
+
+	@Override
+	protected void setValue0(Long value) {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		this.value = value.longValue();
+	}
+
+	/**
+	 * An immutable long tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Immutable extends NBTTagLong {
+
+		private Immutable(long value) {
+			super(value);
+		}
+
+		@Override
+		public void setValue(long value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected void setValue0(Long value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected NBTTagLong asReadOnly() {
+			return this;
+		}
+	}
+
+	/**
+	 * The shared immutable tags.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Cache {
+
+		private static final int LOW = -128;
+		private static final int HIGH = 1024;
+		private static final NBTTagLong[] CACHE = new NBTTagLong[HIGH - LOW + 1];
+
+		static {
+			for (int i = 0; i < CACHE.length; i++) {
+				CACHE[i] = new Immutable((i + LOW));
+			}
+		}
 	}
 }
@@ -2,20 +2,21 @@ package net.steelphoenix.nbtlib.tag;
 
 import java.io.DataOutput;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.stream.LongStream;
 
-import net.steelphoenix.nbtlib.AbstractCollectionNBTTag;
-import net.steelphoenix.nbtlib.MalformedNBTException;
+import net.steelphoenix.nbtlib.AbstractArrayNBTTag;
 import net.steelphoenix.nbtlib.NBTTagType;
+import net.steelphoenix.nbtlib.SNBTOptions;
 
 /**
  * A long array tag.
- * This tag is valid if the array does not contain null elements and all values are valid.
+ * This tag is always valid.
  *
  * @author SteelPhoenix
  */
-public class NBTTagLongArray extends AbstractCollectionNBTTag<NBTTagLong> {
+public class NBTTagLongArray extends AbstractArrayNBTTag<NBTTagLong, long[]> {
 
 	public static final NBTTagType TYPE = NBTTagType.LONG_ARRAY;
 
@@ -24,7 +25,21 @@ public class NBTTagLongArray extends AbstractCollectionNBTTag<NBTTagLong> {
 	}
 
 	public NBTTagLongArray(long[] value) {
-		super(TYPE, toList(value));
+		super(copyArray(value));
+	}
+
+	/**
+	 * Create a read-only view of a tag.
+	 *
+	 * @param tag Target tag.
+	 */
+	private NBTTagLongArray(NBTTagLongArray tag) {
+		super(tag);
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
 	}
 
 	@Override
@@ -32,27 +47,64 @@ public class NBTTagLongArray extends AbstractCollectionNBTTag<NBTTagLong> {
 		return NBTTagType.LONG;
 	}
 
-	@Override
-	public List<NBTTagLong> getValue() {
-		List<NBTTagLong> list = new ArrayList<>(size());
-		for (NBTTagLong tag : this) {
-			list.add(tag == null ? null : tag.copy());
-		}
-		return list;
+	/**
+	 * Get an element without creating a tag.
+	 *
+	 * @param index Target index.
+	 * @return the element.
+	 */
+	public long getLong(int index) {
+		return getArray0()[index];
 	}
 
-	@Override
-	public void setValue(List<NBTTagLong> value) {
-		// Preconditions
-		if (value == null) {
-			throw new NullPointerException("Value cannot be null");
-		}
+	/**
+	 * Set an element without creating a tag.
+	 *
+	 * @param index Target index.
+	 * @param value Target value.
+	 */
+	public void setLong(int index, long value) {
+		getArray0()[index] = value;
+	}
 
-		List<NBTTagLong> list = new ArrayList<>(value.size());
-		for (NBTTagLong tag : value) {
-			list.add(tag == null ? null : tag.copy());
-		}
-		setValue0(list);
+	/**
+	 * Get the value as a primitive array.
+	 * Note that this returns a snapshot.
+	 *
+	 * @return the array.
+	 */
+	public long[] getAsLongArray() {
+		return getArray0().clone();
+	}
+
+	/**
+	 * Get a read-only view of the primitive array.
+	 * Unlike {@link #getAsLongArray()} this does not copy anything.
+	 * Note that the view does not reflect changes to the length of this tag.
+	 *
+	 * @return the view.
+	 */
+	public LongBuffer asBufferView() {
+		return LongBuffer.wrap(getArray0()).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Set the value from a primitive array.
+	 * Note that this may not be null.
+	 *
+	 * @param value Target value.
+	 */
+	public void setValue(long[] value) {
+		setArray0(copyArray(value));
+	}
+
+	/**
+	 * Get a stream of the elements.
+	 *
+	 * @return the stream.
+	 */
+	public LongStream longStream() {
+		return Arrays.stream(getArray0());
 	}
 
 	@Override
@@ -61,45 +113,102 @@ public class NBTTagLongArray extends AbstractCollectionNBTTag<NBTTagLong> {
 		if (output == null) {
 			throw new NullPointerException("Output cannot be null");
 		}
-		if (!isValid()) {
-			throw new MalformedNBTException("Tag is not valid");
-		}
 
-		output.writeInt(size());
-		for (NBTTagLong tag : this) {
-			output.writeLong(tag.getAsLong());
-		}
+		long[] array = getArray0();
+		output.writeInt(array.length);
+		writeArray(output, array);
+	}
+
+	@Override
+	public long serializedSize() {
+		return 4L + 8L * size();
 	}
 
 	@Override
 	public NBTTagLongArray copy() {
-		NBTTagLongArray tag = new NBTTagLongArray();
-		tag.setValue0(getValue());
-		return tag;
+		return new NBTTagLongArray(getArray0());
+	}
+
+	@Override
+	protected NBTTagLongArray asReadOnly() {
+		return new ReadOnly(this);
+	}
+
+	@Override
+	protected void writeSNBT(Appendable output, SNBTOptions options, int depth) throws IOException {
+		writeSNBT(output, options, depth, "[L;", "]");
+	}
+
+	@Override
+	protected void writeElementSNBT(NBTTagLong tag, Appendable output, SNBTOptions options, int depth) throws IOException {
+		// Upper-case suffix because Minecraft does this
+		output.append(Long.toString(tag.getAsLong())).append('L');
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(getArray0());
+	}
+
+	@Override
+	protected int length(long[] array) {
+		return array.length;
 	}
 
 	@Override
-	public String asSNBT(boolean pretty) {
-		// To uppercase because Minecraft does this
-		return asSNBT(pretty, "[L;", "]", (tag, flag) -> tag.asSNBT(flag).toUpperCase());
+	protected long[] newArray(int length) {
+		return new long[length];
+	}
+
+	@Override
+	protected NBTTagLong getElement(long[] array, int index) {
+		return new NBTTagLong(array[index]);
+	}
+
+	@Override
+	protected NBTTagLong getImmutableElement(long[] array, int index) {
+		return NBTTagLong.valueOf(array[index]);
+	}
+
+	@Override
+	protected void setElement(long[] array, int index, NBTTagLong element) {
+		array[index] = element.getAsLong();
 	}
 
 	/**
-	 * Convert an array to a tag list.
+	 * Copy an array.
 	 *
 	 * @param array Target array.
-	 * @return the created list.
+	 * @return the copied array.
 	 */
-	private static List<NBTTagLong> toList(long[] array) {
+	private static long[] copyArray(long[] array) {
 		// Preconditions
 		if (array == null) {
 			throw new NullPointerException("Array cannot be null");
 		}
 
-		List<NBTTagLong> list = new ArrayList<>(array.length);
-		for (int i = 0; i < array.length; i++) {
-			list.add(new NBTTagLong(array[i]));
+		return array.clone();
+	}
+
+	/**
+	 * A read-only view of a long array tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class ReadOnly extends NBTTagLongArray {
+
+		private ReadOnly(NBTTagLongArray tag) {
+			super(tag);
+		}
+
+		@Override
+		public void setLong(int index, long value) {
+			throw new UnsupportedOperationException("Cannot change a read-only tag");
+		}
+
+		@Override
+		protected NBTTagLongArray asReadOnly() {
+			return this;
 		}
-		return list;
 	}
-}
\ No newline at end of file
+}
@@ -16,19 +16,73 @@ import net.steelphoenix.nbtlib.NBTTagType;
 public class NBTTagShort extends AbstractNumericNBTTag<Short> {
 
 	public static final NBTTagType TYPE = NBTTagType.SHORT;
+	private short value;
 
 	public NBTTagShort() {
 		this((short) 0);
 	}
 
 	public NBTTagShort(short value) {
-		super(TYPE, Short.valueOf(value));
+		this.value = value;
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
+	}
+
+	/**
+	 * Get an immutable tag.
+	 * Note that tags with a value in range [-128, 1024] are shared.
+	 *
+	 * @param value Target value.
+	 * @return the tag.
+	 */
+	public static NBTTagShort valueOf(short value) {
+		if (value >= Cache.LOW && value <= Cache.HIGH) {
+			return Cache.CACHE[value - Cache.LOW];
+		}
+		return new Immutable(value);
+	}
+
+	/**
+	 * Set the value without boxing it.
+	 *
+	 * @param value Target value.
+	 */
+	public void setValue(short value) {
+		this.value = value;
 	}
 
 	@Override
 	public byte getAsByte() {
 		// This is what Minecraft does
-		return (byte) (getValue().shortValue() & 0xFF);
+		return (byte) (value & 0xFF);
+	}
+
+	@Override
+	public short getAsShort() {
+		return value;
+	}
+
+	@Override
+	public int getAsInt() {
+		return value;
+	}
+
+	@Override
+	public long getAsLong() {
+		return value;
+	}
+
+	@Override
+	public float getAsFloat() {
+		return value;
+	}
+
+	@Override
+	public double getAsDouble() {
+		return value;
 	}
 
 	@Override
@@ -41,14 +95,17 @@ public class NBTTagShort extends AbstractNumericNBTTag<Short> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		output.writeShort(getValue().shortValue());
+		output.writeShort(value);
+	}
+
+	@Override
+	public long serializedSize() {
+		return 2L;
 	}
 
 	@Override
 	public NBTTagShort copy() {
-		NBTTagShort tag = new NBTTagShort();
-		tag.setValue0(getValue());
-		return tag;
+		return new NBTTagShort(value);
 	}
 
 	@Override
@@ -58,6 +115,85 @@ public class NBTTagShort extends AbstractNumericNBTTag<Short> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		return getValue().toString() + "s";
+		return Short.toString(value) + "s";
+	}
+
+	@Override
+	public int hashCode() {
+		return Short.hashCode(value);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		// Compare without boxing if possible
+		if (object instanceof NBTTagShort) {
+			return value == ((NBTTagShort) object).value;
+		}
+		return super.equals(object);
+	}
+
+	@Override
+	protected NBTTagShort asReadOnly() {
+		return valueOf(value);
+	}
+
+	@Override
+	protected Short getValue0() {
+		return Short.valueOf(value);
+	}
+
+	@Override
+	protected void setValue0(Short value) {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		this.value = value.shortValue();
+	}
+
+	/**
+	 * An immutable short tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Immutable extends NBTTagShort {
+
+		private Immutable(short value) {
+			super(value);
+		}
+
+		@Override
+		public void setValue(short value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected void setValue0(Short value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected NBTTagShort asReadOnly() {
+			return this;
+		}
+	}
+
+	/**
+	 * The shared immutable tags.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Cache {
+
+		private static final int LOW = -128;
+		private static final int HIGH = 1024;
+		private static final NBTTagShort[] CACHE = new NBTTagShort[HIGH - LOW + 1];
+
+		static {
+			for (int i = 0; i < CACHE.length; i++) {
+				CACHE[i] = new Immutable((short) (i + LOW));
+			}
+		}
 	}
 }
\ No newline at end of file
@@ -6,6 +6,8 @@ import java.io.IOException;
 import net.steelphoenix.nbtlib.AbstractNBTTag;
 import net.steelphoenix.nbtlib.MalformedNBTException;
 import net.steelphoenix.nbtlib.NBTTagType;
+import net.steelphoenix.nbtlib.SNBTEscaper;
+import net.steelphoenix.nbtlib.SNBTOptions;
 
 /**
  * A string tag.
@@ -16,13 +18,24 @@ import net.steelphoenix.nbtlib.NBTTagType;
 public class NBTTagString extends AbstractNBTTag<String> {
 
 	public static final NBTTagType TYPE = NBTTagType.STRING;
+	private String value;
 
 	public NBTTagString() {
 		this("");
 	}
 
 	public NBTTagString(String value) {
-		super(TYPE, value);
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
+		}
+
+		this.value = value;
+	}
+
+	@Override
+	public NBTTagType getType() {
+		return TYPE;
 	}
 
 	@Override
@@ -35,7 +48,12 @@ public class NBTTagString extends AbstractNBTTag<String> {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		output.writeUTF(getValue());
+		writeUTF(output, getValue());
+	}
+
+	@Override
+	public long serializedSize() {
+		return 2L + getUTFLength(getValue());
 	}
 
 	@Override
@@ -46,37 +64,55 @@ public class NBTTagString extends AbstractNBTTag<String> {
 	}
 
 	@Override
-	public String asSNBT(boolean pretty) {
+	protected void writeSNBT(Appendable output, SNBTOptions options, int depth) throws IOException {
 		// Preconditions
 		if (!isValid()) {
 			throw new MalformedNBTException("Tag is not valid");
 		}
 
-		String value = getValue();
-		StringBuilder builder = new StringBuilder()
-				.append(' ');
-		char quote = '\0';
-		for (int i = 0; i < value.length(); i++) {
-			char c = value.charAt(i);
-			if (c == '\\') {
-				builder.append('\\');
-			}
-			else if (c == '\"' || c == '\'') {
-				if (quote == '\0') {
-					quote = c == '\"' ? '\'' : '\"';
-				}
-				if (quote == c) {
-					builder.append('\\');
-				}
-			}
-			builder.append(c);
+		SNBTEscaper.writeQuoted(output, value);
+	}
+
+	@Override
+	protected NBTTagString asReadOnly() {
+		return new Immutable(value);
+	}
+
+	@Override
+	protected String getValue0() {
+		return value;
+	}
+
+	@Override
+	protected void setValue0(String value) {
+		// Preconditions
+		if (value == null) {
+			throw new NullPointerException("Value cannot be null");
 		}
-		if (quote == '\0') {
-			quote = '\"';
+
+		this.value = value;
+		sizeChanged();
+	}
+
+	/**
+	 * An immutable string tag.
+	 *
+	 * @author SteelPhoenix
+	 */
+	private static class Immutable extends NBTTagString {
+
+		private Immutable(String value) {
+			super(value);
+		}
+
+		@Override
+		protected void setValue0(String value) {
+			throw new UnsupportedOperationException("Cannot change an immutable tag");
+		}
+
+		@Override
+		protected NBTTagString asReadOnly() {
+			return this;
 		}
-		builder.setCharAt(0, quote);
-		return builder
-				.append(quote)
-				.toString();
 	}
 }
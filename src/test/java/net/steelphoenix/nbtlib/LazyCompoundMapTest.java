@@ -0,0 +1,120 @@
+package net.steelphoenix.nbtlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import net.steelphoenix.nbtlib.tag.NBTTagByteArray;
+import net.steelphoenix.nbtlib.tag.NBTTagCompound;
+import net.steelphoenix.nbtlib.tag.NBTTagInt;
+import net.steelphoenix.nbtlib.tag.NBTTagList;
+import net.steelphoenix.nbtlib.tag.NBTTagLong;
+import net.steelphoenix.nbtlib.tag.NBTTagString;
+
+/**
+ * Tests for lazily read compounds.
+ *
+ * @author SteelPhoenix
+ */
+class LazyCompoundMapTest {
+
+	@Test
+	void roundTrip() throws IOException {
+		NBTTagCompound tag = create();
+		NBTTagCompound read = NBTUtil.read(write(tag), NBTSizeLimiter.UNLIMITED, true);
+
+		assertTrue(read.getValue0() instanceof LazyCompoundMap);
+		assertEquals(tag, read);
+		assertEquals(write(tag), write(read));
+	}
+
+	@Test
+	void changesAfterLazyRead() throws IOException {
+		NBTTagCompound tag = create();
+		NBTTagCompound read = NBTUtil.read(write(tag), NBTSizeLimiter.UNLIMITED, true);
+
+		// Only the accessed value is changed
+		((NBTTagCompound) read.get("child0")).put("extra", new NBTTagLong(1L));
+		read.remove("child1");
+		((NBTTagCompound) tag.get("child0")).put("extra", new NBTTagLong(1L));
+		tag.remove("child1");
+
+		assertEquals(tag, read);
+		assertEquals(NBTUtil.serializedSize("", tag), NBTUtil.serializedSize("", read));
+		assertEquals(write(tag), write(read));
+	}
+
+	@Test
+	void copyDoesNotDecode() throws IOException {
+		NBTTagCompound read = NBTUtil.read(write(create()), NBTSizeLimiter.UNLIMITED, true);
+		NBTTagCompound copy = read.copy();
+
+		((NBTTagCompound) copy.get("child2")).clear();
+		assertFalse(((NBTTagCompound) read.get("child2")).isEmpty());
+		assertEquals(create(), read);
+	}
+
+	@Test
+	void concurrentReads() throws Exception {
+		NBTTagCompound tag = create();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int run = 0; run < 50; run++) {
+				NBTTagCompound read = NBTUtil.read(write(tag), NBTSizeLimiter.UNLIMITED, true);
+				List<Future<?>> futures = new ArrayList<>();
+				for (int i = 0; i < 4; i++) {
+					futures.add(executor.submit(() -> assertEquals(tag, read)));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Write a compound tag.
+	 *
+	 * @param tag Target tag.
+	 * @return the flipped buffer.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static ByteBuffer write(NBTTagCompound tag) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) NBTUtil.serializedSize("", tag));
+		NBTUtil.write(buffer, tag);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Create a compound with nested compounds.
+	 *
+	 * @return the compound.
+	 */
+	private static NBTTagCompound create() {
+		NBTTagCompound tag = new NBTTagCompound();
+		for (int i = 0; i < 8; i++) {
+			NBTTagCompound child = new NBTTagCompound();
+			child.put("index", new NBTTagInt(i));
+			child.put("name", new NBTTagString("child" + i));
+			child.put("data", new NBTTagByteArray(new byte[i * 16]));
+			NBTTagList list = new NBTTagList(NBTTagType.COMPOUND, new INBTTag<?>[0]);
+			list.add(new NBTTagCompound());
+			child.put("list", list);
+			tag.put("child" + i, child);
+		}
+		return tag;
+	}
+}
@@ -0,0 +1,74 @@
+package net.steelphoenix.nbtlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import net.steelphoenix.nbtlib.tag.NBTTagByte;
+import net.steelphoenix.nbtlib.tag.NBTTagDouble;
+import net.steelphoenix.nbtlib.tag.NBTTagFloat;
+import net.steelphoenix.nbtlib.tag.NBTTagInt;
+import net.steelphoenix.nbtlib.tag.NBTTagLong;
+import net.steelphoenix.nbtlib.tag.NBTTagShort;
+import net.steelphoenix.nbtlib.tag.NBTTagString;
+
+/**
+ * Tests for numeric literal recognition in stringified NBT.
+ *
+ * @author SteelPhoenix
+ */
+class SNBTNumbersTest {
+
+	@Test
+	void integers() {
+		assertEquals(new NBTTagInt(0), parse("0"));
+		assertEquals(new NBTTagInt(-12), parse("-12"));
+		assertEquals(new NBTTagInt(Integer.MIN_VALUE), parse("-2147483648"));
+		assertEquals(new NBTTagByte((byte) -128), parse("-128b"));
+		assertEquals(new NBTTagShort((short) 300), parse("+300S"));
+		assertEquals(new NBTTagLong(Long.MIN_VALUE), parse("-9223372036854775808l"));
+	}
+
+	@Test
+	void decimals() {
+		assertEquals(new NBTTagDouble(1.5D), parse("1.5"));
+		assertEquals(new NBTTagDouble(0.5D), parse(".5"));
+		assertEquals(new NBTTagDouble(2.0D), parse("2."));
+		assertEquals(new NBTTagDouble(-1.5E10D), parse("-1.5e10"));
+		assertEquals(new NBTTagDouble(3.0D), parse("3d"));
+		assertEquals(new NBTTagFloat(1.0E5F), parse("1e5f"));
+		assertEquals(new NBTTagFloat(0.1F), parse("0.1f"));
+		assertEquals(new NBTTagDouble(0.1D), parse("0.1"));
+		assertEquals(new NBTTagFloat(Float.NaN), parse("NaNf"));
+		assertEquals(new NBTTagDouble(Double.NEGATIVE_INFINITY), parse("-Infinityd"));
+	}
+
+	@Test
+	void strings() {
+		assertEquals(new NBTTagString("stone"), parse("stone"));
+		assertEquals(new NBTTagString("128b"), parse("128b"));
+		assertEquals(new NBTTagString("2147483648"), parse("2147483648"));
+		assertEquals(new NBTTagString("01"), parse("01"));
+		assertEquals(new NBTTagString("1e5"), parse("1e5"));
+		assertEquals(new NBTTagString("1.5x"), parse("1.5x"));
+		assertEquals(new NBTTagString("-"), parse("-"));
+	}
+
+	@Test
+	void roundTrip() {
+		for (String literal : new String[] { "1b", "-2s", "3", "4L", "5.5f", "6.25d", "-7.0E-9d" }) {
+			INBTTag<?> tag = parse(literal);
+			assertEquals(tag, parse(tag.asSNBT()));
+		}
+	}
+
+	/**
+	 * Parse a single value.
+	 *
+	 * @param value Target value.
+	 * @return the parsed tag.
+	 */
+	private static INBTTag<?> parse(String value) {
+		return NBTUtil.parse("{value:" + value + "}").get("value");
+	}
+}
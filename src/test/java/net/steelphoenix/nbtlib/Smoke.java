@@ -0,0 +1,3 @@
+package net.steelphoenix.nbtlib;
+import org.junit.jupiter.api.Test;
+class Smoke { @Test void t() {} }
@@ -0,0 +1,128 @@
+package net.steelphoenix.nbtlib.region;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.steelphoenix.nbtlib.tag.NBTTagByteArray;
+import net.steelphoenix.nbtlib.tag.NBTTagCompound;
+import net.steelphoenix.nbtlib.tag.NBTTagInt;
+
+/**
+ * Tests for region files.
+ *
+ * @author SteelPhoenix
+ */
+class RegionFileTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void roundTrip() throws IOException {
+		Path path = directory.resolve("r.0.0.mca");
+		try (RegionFile region = new RegionFile(path)) {
+			assertFalse(region.hasChunk(0, 0));
+			assertNull(region.read(0, 0));
+
+			region.write(0, 0, create(0, 10));
+			region.write(31, 31, create(1, 10000), ChunkCompression.GZIP);
+			region.write(-1, 5, create(2, 0), ChunkCompression.NONE);
+
+			assertEquals(create(0, 10), region.read(0, 0));
+			assertEquals(create(1, 10000), region.read(31, 31));
+			assertEquals(create(2, 0), region.read(31, 5));
+			assertTrue(region.getTimestamp(0, 0) > 0);
+		}
+		assertEquals(0L, Files.size(path) % RegionFile.SECTOR_SIZE);
+
+		// Reopen
+		try (RegionFile region = new RegionFile(path, true)) {
+			assertEquals(create(0, 10), region.read(0, 0));
+			assertEquals(create(1, 10000), region.read(31, 31));
+			assertEquals(create(2, 0), region.read(-1, 5));
+			assertThrows(IllegalStateException.class, () -> region.delete(0, 0));
+		}
+	}
+
+	@Test
+	void freedSectorsAreReused() throws IOException {
+		Path path = directory.resolve("r.0.0.mca");
+		try (RegionFile region = new RegionFile(path)) {
+			region.write(0, 0, create(0, 20000), ChunkCompression.NONE);
+			region.write(1, 0, create(1, 10), ChunkCompression.NONE);
+			long size = Files.size(path);
+
+			region.delete(0, 0);
+			assertFalse(region.hasChunk(0, 0));
+			region.write(2, 0, create(2, 20000), ChunkCompression.NONE);
+			assertEquals(size, Files.size(path));
+
+			assertNull(region.read(0, 0));
+			assertEquals(create(1, 10), region.read(1, 0));
+			assertEquals(create(2, 20000), region.read(2, 0));
+		}
+	}
+
+	@Test
+	void readsDuringWritesSeeOwnChunk() throws Exception {
+		Path path = directory.resolve("r.0.0.mca");
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try (RegionFile region = new RegionFile(path)) {
+			region.write(0, 0, create(0, 5000), ChunkCompression.NONE);
+			region.write(1, 0, create(1, 5000), ChunkCompression.NONE);
+
+			// Rewriting both chunks keeps swapping their sectors
+			AtomicBoolean done = new AtomicBoolean();
+			Future<?> writer = executor.submit(() -> {
+				for (int i = 0; i < 500; i++) {
+					region.write(0, 0, create(0, 5000), ChunkCompression.NONE);
+					region.write(1, 0, create(1, 5000), ChunkCompression.NONE);
+				}
+				done.set(true);
+				return null;
+			});
+			Future<?> reader = executor.submit(() -> {
+				while (!done.get()) {
+					assertEquals(0, ((NBTTagInt) region.read(0, 0).get("id")).getAsInt());
+				}
+				return null;
+			});
+			writer.get();
+			reader.get();
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Create a chunk tag.
+	 *
+	 * @param id Chunk identifier.
+	 * @param length Data length.
+	 * @return the chunk tag.
+	 */
+	private static NBTTagCompound create(int id, int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) (id * 31 + i);
+		}
+		NBTTagCompound tag = new NBTTagCompound();
+		tag.put("id", new NBTTagInt(id));
+		tag.put("data", new NBTTagByteArray(data));
+		return tag;
+	}
+}
@@ -0,0 +1,141 @@
+package net.steelphoenix.nbtlib.tag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import net.steelphoenix.nbtlib.INBTTag;
+import net.steelphoenix.nbtlib.NBTTagType;
+import net.steelphoenix.nbtlib.NBTUtil;
+
+/**
+ * Tests for copy-on-write compounds, their size cache and read-only views.
+ *
+ * @author SteelPhoenix
+ */
+class NBTTagCompoundTest {
+
+	@Test
+	void copyIsolatesNestedChanges() {
+		NBTTagCompound original = create();
+		NBTTagCompound copy = original.copy();
+
+		((NBTTagCompound) copy.get("inner")).put("value", new NBTTagInt(2));
+		((NBTTagList) copy.get("list")).add(new NBTTagString("c"));
+		((NBTTagIntArray) copy.get("array")).setInt(0, 9);
+
+		assertEquals(create(), original);
+		assertEquals(new NBTTagInt(2), ((NBTTagCompound) copy.get("inner")).get("value"));
+		assertEquals(3, ((NBTTagList) copy.get("list")).size());
+		assertEquals(9, ((NBTTagIntArray) copy.get("array")).getInt(0));
+	}
+
+	@Test
+	void originalChangesDoNotLeakIntoCopy() {
+		NBTTagCompound original = create();
+		NBTTagCompound copy = original.copy();
+
+		((NBTTagCompound) original.get("inner")).remove("value");
+		original.put("extra", new NBTTagByte((byte) 1));
+
+		assertEquals(create(), copy);
+	}
+
+	@Test
+	void getValueAndSetValueCopy() {
+		NBTTagCompound tag = create();
+		Map<String, INBTTag<?>> value = tag.getValue();
+		((NBTTagCompound) value.get("inner")).put("value", new NBTTagInt(3));
+		assertEquals(create(), tag);
+
+		NBTTagCompound other = new NBTTagCompound();
+		other.setValue(value);
+		((NBTTagCompound) value.get("inner")).clear();
+		assertNotSame(value.get("inner"), other.get("inner"));
+		assertEquals(new NBTTagInt(3), ((NBTTagCompound) other.get("inner")).get("value"));
+	}
+
+	@Test
+	void serializedSizeFollowsChanges() throws IOException {
+		NBTTagCompound tag = create();
+		assertSize(tag);
+
+		NBTTagCompound inner = (NBTTagCompound) tag.get("inner");
+		inner.put("name", new NBTTagString("a longer value"));
+		assertSize(tag);
+
+		((NBTTagString) inner.get("name")).setValue("x");
+		assertSize(tag);
+
+		((NBTTagList) tag.get("list")).remove(0);
+		assertSize(tag);
+
+		((NBTTagIntArray) tag.get("array")).setValue(new int[16]);
+		assertSize(tag);
+
+		// Held twice in the same tree
+		NBTTagCompound shared = new NBTTagCompound();
+		tag.put("first", shared);
+		inner.put("second", shared);
+		assertSize(tag);
+		shared.put("value", new NBTTagLong(1L));
+		assertSize(tag);
+	}
+
+	@Test
+	void viewsAreReadOnly() {
+		NBTTagCompound tag = create();
+		Map<String, INBTTag<?>> view = tag.asMapView();
+
+		assertThrows(UnsupportedOperationException.class, () -> view.put("value", new NBTTagInt(0)));
+		assertThrows(UnsupportedOperationException.class, () -> ((NBTTagCompound) view.get("inner")).put("value", new NBTTagInt(0)));
+		assertThrows(UnsupportedOperationException.class, () -> ((NBTTagList) view.get("list")).clear());
+		assertThrows(UnsupportedOperationException.class, () -> ((NBTTagIntArray) view.get("array")).setInt(0, 0));
+		assertThrows(UnsupportedOperationException.class, () -> view.entrySet().iterator().next().setValue(null));
+
+		// Views follow the viewed tag
+		tag.put("extra", new NBTTagByte((byte) 1));
+		assertEquals(tag.size(), view.size());
+		assertEquals(new NBTTagByte((byte) 1), view.get("extra"));
+	}
+
+	/**
+	 * Check the serialized size against the written data.
+	 *
+	 * @param tag Target tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static void assertSize(NBTTagCompound tag) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		NBTUtil.write(buffer, tag);
+		assertEquals(buffer.position(), NBTUtil.serializedSize("", tag));
+	}
+
+	/**
+	 * Create a compound with nested tags.
+	 *
+	 * @return the compound.
+	 */
+	private static NBTTagCompound create() {
+		NBTTagCompound inner = new NBTTagCompound();
+		inner.put("value", new NBTTagInt(1));
+		inner.put("name", new NBTTagString("inner"));
+
+		NBTTagList list = new NBTTagList(NBTTagType.STRING, new INBTTag<?>[0]);
+		list.add(new NBTTagString("a"));
+		list.add(new NBTTagString("b"));
+
+		NBTTagCompound tag = new NBTTagCompound();
+		tag.put("inner", inner);
+		tag.put("list", list);
+		tag.put("array", new NBTTagIntArray(new int[] { 1, 2, 3 }));
+		tag.put("double", new NBTTagDouble(0.5D));
+		return tag;
+	}
+}
@@ -0,0 +1,109 @@
+package net.steelphoenix.nbtlib.tag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.steelphoenix.nbtlib.INBTTag;
+import net.steelphoenix.nbtlib.NBTTagType;
+import net.steelphoenix.nbtlib.NBTUtil;
+
+/**
+ * Tests for copy-on-write lists, their size cache and read-only views.
+ *
+ * @author SteelPhoenix
+ */
+class NBTTagListTest {
+
+	@Test
+	void copyIsolatesNestedChanges() {
+		NBTTagList original = create();
+		NBTTagList copy = original.copy();
+
+		((NBTTagCompound) copy.get(0)).put("value", new NBTTagInt(5));
+		copy.subList(1, 2).clear();
+
+		assertEquals(create(), original);
+		assertEquals(1, copy.size());
+		assertEquals(new NBTTagInt(5), ((NBTTagCompound) copy.get(0)).get("value"));
+	}
+
+	@Test
+	void iteratorChangesDoNotLeak() {
+		NBTTagList original = create();
+		NBTTagList copy = original.copy();
+
+		Iterator<INBTTag<?>> iterator = copy.iterator();
+		iterator.next();
+		iterator.remove();
+
+		assertEquals(create(), original);
+		assertEquals(1, copy.size());
+	}
+
+	@Test
+	void serializedSizeFollowsChanges() throws IOException {
+		NBTTagCompound root = new NBTTagCompound();
+		NBTTagList list = create();
+		root.put("list", list);
+		assertSize(root);
+
+		((NBTTagCompound) list.get(0)).put("name", new NBTTagString("a longer value"));
+		assertSize(root);
+
+		list.subList(0, 1).clear();
+		assertSize(root);
+
+		list.listIterator().add(new NBTTagCompound());
+		assertSize(root);
+	}
+
+	@Test
+	void viewsAreReadOnly() {
+		NBTTagList list = create();
+		List<INBTTag<?>> view = list.asListView();
+
+		assertThrows(UnsupportedOperationException.class, () -> view.add(new NBTTagCompound()));
+		assertThrows(UnsupportedOperationException.class, () -> ((NBTTagCompound) view.get(0)).clear());
+		Iterator<INBTTag<?>> iterator = view.iterator();
+		iterator.next();
+		assertThrows(UnsupportedOperationException.class, iterator::remove);
+
+		// Views follow the viewed tag
+		list.clear();
+		assertEquals(0, view.size());
+	}
+
+	/**
+	 * Check the serialized size against the written data.
+	 *
+	 * @param tag Target tag.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static void assertSize(NBTTagCompound tag) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		NBTUtil.write(buffer, tag);
+		assertEquals(buffer.position(), NBTUtil.serializedSize("", tag));
+	}
+
+	/**
+	 * Create a list of compounds.
+	 *
+	 * @return the list.
+	 */
+	private static NBTTagList create() {
+		NBTTagList list = new NBTTagList(NBTTagType.COMPOUND, new INBTTag<?>[0]);
+		for (int i = 0; i < 2; i++) {
+			NBTTagCompound tag = new NBTTagCompound();
+			tag.put("value", new NBTTagInt(i));
+			list.add(tag);
+		}
+		return list;
+	}
+}